@@ -21,8 +21,12 @@ public abstract class AbstractEventProcessor<T extends Event> implements EventPr
 
         @SuppressWarnings("unchecked")
         final var cast = (T) event;
-        return shouldProcess0(cast)
-                .flatMapMany(b -> b ? process0(cast) : Flux.empty());
+        return Flux.deferWithContext(ctx -> {
+            final EventProcessorMetrics metrics = ctx.getOrDefault(EventProcessorMetrics.class, null);
+            final Mono<Boolean> shouldProcess =
+                    metrics != null ? metrics.recordShouldProcess(shouldProcess0(cast)) : shouldProcess0(cast);
+            return shouldProcess.flatMapMany(b -> b ? process0(cast) : Flux.empty());
+        });
     }
 
     protected abstract Mono<Boolean> shouldProcess0(T event);
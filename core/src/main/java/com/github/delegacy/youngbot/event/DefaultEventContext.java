@@ -1,18 +1,29 @@
 package com.github.delegacy.youngbot.event;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import javax.annotation.Nullable;
+
+import com.github.delegacy.youngbot.event.message.ChannelMessageEvent;
+import com.github.delegacy.youngbot.event.message.RecentMessage;
+import com.github.delegacy.youngbot.event.message.RecentMessageStore;
+
 final class DefaultEventContext implements EventContext {
     private final Event event;
 
+    @Nullable
+    private final RecentMessageStore recentMessageStore;
+
     private final Map<Object, Object> attrs = new ConcurrentHashMap<>();
 
     /**
      * TBW.
      */
-    DefaultEventContext(Event event) {
+    DefaultEventContext(Event event, @Nullable RecentMessageStore recentMessageStore) {
         this.event = event;
+        this.recentMessageStore = recentMessageStore;
     }
 
     @Override
@@ -24,4 +35,12 @@ final class DefaultEventContext implements EventContext {
     public Map<Object, Object> attrs() {
         return attrs;
     }
+
+    @Override
+    public List<RecentMessage> recentMessages(int limit) {
+        if (recentMessageStore == null || !(event instanceof ChannelMessageEvent)) {
+            return List.of();
+        }
+        return recentMessageStore.recent(((ChannelMessageEvent) event).channel(), limit);
+    }
 }
@@ -1,7 +1,11 @@
 package com.github.delegacy.youngbot.event;
 
+import java.util.List;
 import java.util.Map;
 
+import com.github.delegacy.youngbot.event.message.ChannelMessageEvent;
+import com.github.delegacy.youngbot.event.message.RecentMessage;
+
 import reactor.core.publisher.Mono;
 
 /**
@@ -24,4 +28,15 @@ public interface EventContext {
      * TBW.
      */
     Map<Object, Object> attrs();
+
+    /**
+     * Returns up to {@code limit} most recent messages of the channel the {@link #event()} was posted to,
+     * the oldest first. Returns an empty list if the event is not a {@link ChannelMessageEvent} or recent
+     * messages are not kept.
+     *
+     * <p>Returns an empty list by default, so that the existing implementations keep working.
+     */
+    default List<RecentMessage> recentMessages(int limit) {
+        return List.of();
+    }
 }
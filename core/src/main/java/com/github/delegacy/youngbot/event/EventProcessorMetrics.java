@@ -0,0 +1,84 @@
+package com.github.delegacy.youngbot.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The meters of an {@link EventProcessor}, tagged with the simple class name of the processor.
+ * {@link EventService} puts them in the subscriber context of the processor, so that
+ * {@link AbstractEventProcessor} can also record how its {@code shouldProcess0()} went.
+ */
+final class EventProcessorMetrics {
+    /**
+     * Returns the simple name of the class of the processor. A lambda or an anonymous class is named after
+     * the class it is declared in instead, as its own name changes with the code around it.
+     */
+    private static String name(EventProcessor processor) {
+        final Class<?> type = processor.getClass();
+        if (type.isAnonymousClass()) {
+            return type.getEnclosingClass().getSimpleName();
+        }
+        if (type.isSynthetic()) {
+            final String name = type.getName();
+            final int lambda = name.indexOf("$$Lambda");
+            final String declaring = lambda >= 0 ? name.substring(0, lambda) : name;
+            return declaring.substring(declaring.lastIndexOf('.') + 1);
+        }
+        return type.getSimpleName();
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer shouldProcessTimer;
+
+    private final Counter matches;
+
+    private final Timer processTimer;
+
+    private final Counter errors;
+
+    EventProcessorMetrics(EventProcessor processor, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        final String name = name(processor);
+        shouldProcessTimer = Timer.builder("youngbot.event.processor.should.process")
+                                  .tag("processor", name)
+                                  .register(meterRegistry);
+        matches = Counter.builder("youngbot.event.processor.matches")
+                         .tag("processor", name)
+                         .register(meterRegistry);
+        processTimer = Timer.builder("youngbot.event.processor.process")
+                            .tag("processor", name)
+                            .register(meterRegistry);
+        errors = Counter.builder("youngbot.event.processor.errors")
+                        .tag("processor", name)
+                        .register(meterRegistry);
+    }
+
+    Mono<Boolean> recordShouldProcess(Mono<Boolean> shouldProcess) {
+        return Mono.defer(() -> {
+            final Timer.Sample sample = Timer.start(meterRegistry);
+            return shouldProcess.doOnNext(matched -> {
+                                    if (matched) {
+                                        matches.increment();
+                                    }
+                                })
+                                .doFinally(signal -> sample.stop(shouldProcessTimer));
+        });
+    }
+
+    /**
+     * Records the time from the subscription to the termination of the responses, which includes
+     * {@code shouldProcess0()} for an {@link AbstractEventProcessor}.
+     */
+    Flux<EventResponse> recordProcess(Flux<EventResponse> responses) {
+        return Flux.defer(() -> {
+            final Timer.Sample sample = Timer.start(meterRegistry);
+            return responses.doOnError(t -> errors.increment())
+                            .doFinally(signal -> sample.stop(processTimer));
+        });
+    }
+}
@@ -2,30 +2,85 @@ package com.github.delegacy.youngbot.event;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import javax.annotation.Nullable;
+
+import com.github.delegacy.youngbot.event.message.ChannelMessageEvent;
+import com.github.delegacy.youngbot.event.message.RecentMessageStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import reactor.core.publisher.Flux;
 
 /**
  * TBW.
  */
 public class EventService {
+    /**
+     * TBW.
+     */
+    public static EventServiceBuilder builder(Set<EventProcessor> processors) {
+        return new EventServiceBuilder(requireNonNull(processors, "processors"));
+    }
+
     private final Set<EventProcessor> processors;
 
+    @Nullable
+    private final RecentMessageStore recentMessageStore;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The meters of each processor, created when it processes an event for the first time, as the set of
+     * the processors may change after this service is created.
+     */
+    private final Map<EventProcessor, EventProcessorMetrics> metrics = new ConcurrentHashMap<>();
+
     /**
      * TBW.
      */
     public EventService(Set<EventProcessor> processors) {
+        this(processors, null, Metrics.globalRegistry);
+    }
+
+    /**
+     * Creates a new instance which keeps every {@link ChannelMessageEvent} in the specified
+     * {@link RecentMessageStore} before processing it, so that {@link EventContext#recentMessages(int)}
+     * includes the message being processed.
+     */
+    public EventService(Set<EventProcessor> processors, RecentMessageStore recentMessageStore) {
+        this(processors, requireNonNull(recentMessageStore, "recentMessageStore"), Metrics.globalRegistry);
+    }
+
+    EventService(Set<EventProcessor> processors, @Nullable RecentMessageStore recentMessageStore,
+                 MeterRegistry meterRegistry) {
         this.processors = requireNonNull(processors, "processors");
+        this.recentMessageStore = recentMessageStore;
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
     }
 
     /**
      * TBW.
      */
     public Flux<EventResponse> process(Event event) {
+        if (recentMessageStore != null && event instanceof ChannelMessageEvent) {
+            recentMessageStore.add((ChannelMessageEvent) event);
+        }
+
         return Flux.fromIterable(processors)
-                   .concatMap(p -> p.process(event))
+                   .concatMap(p -> process(p, event))
                    .filter(res -> !res.text().isEmpty())
-                   .subscriberContext(ctx -> ctx.put(EventContext.class, new DefaultEventContext(event)));
+                   .subscriberContext(ctx -> ctx.put(EventContext.class,
+                                                     new DefaultEventContext(event, recentMessageStore)));
+    }
+
+    private Flux<EventResponse> process(EventProcessor processor, Event event) {
+        final EventProcessorMetrics meters =
+                metrics.computeIfAbsent(processor, key -> new EventProcessorMetrics(key, meterRegistry));
+        return meters.recordProcess(processor.process(event))
+                     .subscriberContext(ctx -> ctx.put(EventProcessorMetrics.class, meters));
     }
 }
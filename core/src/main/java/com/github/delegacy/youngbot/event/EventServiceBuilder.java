@@ -0,0 +1,54 @@
+package com.github.delegacy.youngbot.event;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import com.github.delegacy.youngbot.event.message.ChannelMessageEvent;
+import com.github.delegacy.youngbot.event.message.RecentMessageStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * TBW.
+ */
+public final class EventServiceBuilder {
+    private final Set<EventProcessor> processors;
+
+    @Nullable
+    private RecentMessageStore recentMessageStore;
+
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    EventServiceBuilder(Set<EventProcessor> processors) {
+        this.processors = processors;
+    }
+
+    /**
+     * Keeps every {@link ChannelMessageEvent} in the specified {@link RecentMessageStore} before processing
+     * it, so that {@link EventContext#recentMessages(int)} includes the message being processed.
+     */
+    public EventServiceBuilder recentMessageStore(RecentMessageStore recentMessageStore) {
+        this.recentMessageStore = requireNonNull(recentMessageStore, "recentMessageStore");
+        return this;
+    }
+
+    /**
+     * Sets the {@link MeterRegistry} the latency, the matches and the errors of each processor are
+     * recorded to.
+     */
+    public EventServiceBuilder meterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+        return this;
+    }
+
+    /**
+     * TBW.
+     */
+    public EventService build() {
+        return new EventService(processors, recentMessageStore, meterRegistry);
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.delegacy.youngbot.event;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Splits the text of a response into the chunks a messaging platform accepts.
+ */
+public final class TextSplitter {
+    /**
+     * Splits the text into chunks of at most {@code maxLength} characters. A chunk ends at the last line
+     * break that fits, then at the last whitespace, and in the middle of a word only if there is neither.
+     * The line break or whitespace a chunk ends at is dropped.
+     *
+     * <p>The chunks are cut lazily as they are requested, so each character is copied only once even for a
+     * huge text.
+     */
+    public static Flux<String> split(String text, int maxLength) {
+        requireNonNull(text, "text");
+        checkArgument(maxLength > 0, "maxLength: %s (expected: > 0)", maxLength);
+
+        if (text.length() <= maxLength) {
+            return Flux.just(text);
+        }
+
+        return Flux.generate(() -> 0, (start, sink) -> {
+            final int end = chunkEnd(text, start, maxLength);
+            sink.next(text.substring(start, end));
+
+            final int next = end < text.length() && Character.isWhitespace(text.charAt(end)) ? end + 1
+                                                                                               : end;
+            if (next >= text.length()) {
+                sink.complete();
+            }
+            return next;
+        });
+    }
+
+    private static int chunkEnd(String text, int start, int maxLength) {
+        final int limit = start + maxLength;
+        if (limit >= text.length()) {
+            return text.length();
+        }
+
+        // The character at the limit is not a part of the chunk, so it can be the boundary itself.
+        final int lineBreak = text.lastIndexOf('\n', limit);
+        if (lineBreak > start) {
+            return lineBreak;
+        }
+        for (int i = limit; i > start; i--) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        if (Character.isHighSurrogate(text.charAt(limit - 1)) && limit - 1 > start) {
+            return limit - 1;
+        }
+        return limit;
+    }
+
+    private TextSplitter() {}
+}
@@ -0,0 +1,26 @@
+package com.github.delegacy.youngbot.event.message;
+
+/**
+ * A {@link MessageEvent} which was posted to a channel and can be kept in a {@link RecentMessageStore}.
+ */
+public interface ChannelMessageEvent extends MessageEvent {
+    /**
+     * TBW.
+     */
+    String channel();
+
+    /**
+     * TBW.
+     */
+    String user();
+
+    /**
+     * Returns the numeric ID of the message, or {@code 0} if unknown.
+     */
+    long messageId();
+
+    /**
+     * Returns the time when the message was posted in milliseconds since the epoch, or {@code 0} if unknown.
+     */
+    long timestamp();
+}
@@ -0,0 +1,39 @@
+package com.github.delegacy.youngbot.event.message;
+
+final class DefaultRecentMessage implements RecentMessage {
+    private final long messageId;
+
+    private final long timestamp;
+
+    private final String user;
+
+    private final String text;
+
+    DefaultRecentMessage(long messageId, long timestamp, String user, String text) {
+        this.messageId = messageId;
+        this.timestamp = timestamp;
+        this.user = user;
+        this.text = text;
+    }
+
+    @Override
+    public long messageId() {
+        return messageId;
+    }
+
+    @Override
+    public long timestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String user() {
+        return user;
+    }
+
+    @Override
+    public String text() {
+        return text;
+    }
+
+}
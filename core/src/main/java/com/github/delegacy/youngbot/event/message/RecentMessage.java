@@ -0,0 +1,26 @@
+package com.github.delegacy.youngbot.event.message;
+
+/**
+ * A message kept in a {@link RecentMessageStore}.
+ */
+public interface RecentMessage {
+    /**
+     * TBW.
+     */
+    long messageId();
+
+    /**
+     * TBW.
+     */
+    long timestamp();
+
+    /**
+     * TBW.
+     */
+    String user();
+
+    /**
+     * TBW.
+     */
+    String text();
+}
@@ -0,0 +1,191 @@
+package com.github.delegacy.youngbot.event.message;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A fixed-size ring buffer of the recent messages in a channel. IDs and timestamps are kept in primitive
+ * arrays, and users and texts are encoded in UTF-8 back to back in a circular byte array, so that adding
+ * a message allocates nothing. A message whose bytes do not fit in the rest of the byte array is written
+ * at its beginning, evicting the oldest messages it overlaps. Not thread-safe.
+ */
+final class RecentMessageBuffer {
+    /**
+     * Returns the approximate number of bytes retained by a buffer with the specified sizes.
+     */
+    static long footprint(int capacity, int dataSize) {
+        // 2 long arrays and 3 int arrays per message, the byte array, and the headers of all the objects.
+        return 28L * capacity + dataSize + 160;
+    }
+
+    private static int encodedLength(String s, int limit) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            final int n;
+            if (c < 0x80) {
+                n = 1;
+            } else if (c < 0x800) {
+                n = 2;
+            } else if (isSurrogatePair(s, i)) {
+                n = 4;
+            } else if (Character.isSurrogate(c)) {
+                n = 1;
+            } else {
+                n = 3;
+            }
+
+            if (length + n > limit) {
+                break;
+            }
+            length += n;
+            if (n == 4) {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    private static void encode(String s, byte[] dst, int offset, int length) {
+        final int end = offset + length;
+        int pos = offset;
+        for (int i = 0; pos < end; i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                dst[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                dst[pos++] = (byte) (0xC0 | c >> 6);
+                dst[pos++] = (byte) (0x80 | c & 0x3F);
+            } else if (isSurrogatePair(s, i)) {
+                final int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                dst[pos++] = (byte) (0xF0 | codePoint >> 18);
+                dst[pos++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                dst[pos++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                dst[pos++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // Same replacement as String.getBytes(UTF_8) for a malformed surrogate.
+                dst[pos++] = '?';
+            } else {
+                dst[pos++] = (byte) (0xE0 | c >> 12);
+                dst[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+                dst[pos++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    private static boolean isSurrogatePair(String s, int index) {
+        return Character.isHighSurrogate(s.charAt(index)) && index + 1 < s.length() &&
+               Character.isLowSurrogate(s.charAt(index + 1));
+    }
+
+    private final long[] messageIds;
+
+    private final long[] timestamps;
+
+    private final int[] offsets;
+
+    private final int[] userLengths;
+
+    private final int[] textLengths;
+
+    private final byte[] data;
+
+    /**
+     * The slot the next message is stored at.
+     */
+    private int head;
+
+    private int size;
+
+    /**
+     * The offset in {@link #data} the next message is written at.
+     */
+    private int position;
+
+    RecentMessageBuffer(int capacity, int dataSize) {
+        messageIds = new long[capacity];
+        timestamps = new long[capacity];
+        offsets = new int[capacity];
+        userLengths = new int[capacity];
+        textLengths = new int[capacity];
+        data = new byte[dataSize];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds a message, truncating its text if the message does not fit in the whole byte array.
+     */
+    void add(long messageId, long timestamp, String user, String text) {
+        final int userLength = encodedLength(user, data.length);
+        final int textLength = encodedLength(text, data.length - userLength);
+        final int length = userLength + textLength;
+
+        if (size == messageIds.length) {
+            size--;
+        }
+
+        if (position + length > data.length) {
+            // The oldest messages lie between the current position and the end of the byte array.
+            while (size > 0 && offsets[oldest()] >= position) {
+                size--;
+            }
+            position = 0;
+        }
+
+        while (size > 0 && offsets[oldest()] >= position && offsets[oldest()] < position + length) {
+            size--;
+        }
+
+        encode(user, data, position, userLength);
+        encode(text, data, position + userLength, textLength);
+
+        messageIds[head] = messageId;
+        timestamps[head] = timestamp;
+        offsets[head] = position;
+        userLengths[head] = userLength;
+        textLengths[head] = textLength;
+
+        head = (head + 1) % messageIds.length;
+        size++;
+        position += length;
+    }
+
+    /**
+     * Returns up to {@code limit} most recent messages, the oldest first.
+     */
+    List<RecentMessage> recent(int limit) {
+        final int count = Math.min(limit, size);
+        final List<RecentMessage> messages = new ArrayList<>(count);
+        for (int i = size - count; i < size; i++) {
+            final int slot = slot(i);
+            final int offset = offsets[slot];
+            final int userLength = userLengths[slot];
+            messages.add(new DefaultRecentMessage(
+                    messageIds[slot], timestamps[slot],
+                    new String(data, offset, userLength, StandardCharsets.UTF_8),
+                    new String(data, offset + userLength, textLengths[slot], StandardCharsets.UTF_8)));
+        }
+        return messages;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+        position = 0;
+    }
+
+    private int oldest() {
+        return slot(0);
+    }
+
+    /**
+     * Returns the slot of the {@code index}-th stored message, the oldest being {@code 0}.
+     */
+    private int slot(int index) {
+        return (head - size + index + messageIds.length) % messageIds.length;
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.delegacy.youngbot.event.message;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the recent messages of each channel in a fixed-size ring buffer. The buffers are allocated up
+ * front, so the memory used by a channel does not depend on its traffic, and the least recently used
+ * channel is evicted when another buffer would exceed {@code maxMemoryBytes}. The buffer of an evicted
+ * channel is reused for the new one.
+ */
+public final class RecentMessageStore {
+    private final int messagesPerChannel;
+
+    private final int bytesPerChannel;
+
+    private final int maxChannels;
+
+    private final Map<String, RecentMessageBuffer> buffers = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Creates a new instance which keeps up to {@code messagesPerChannel} messages whose users and texts
+     * take up to {@code bytesPerChannel} bytes in UTF-8 for each channel, using up to
+     * {@code maxMemoryBytes} bytes in total.
+     */
+    public RecentMessageStore(int messagesPerChannel, int bytesPerChannel, long maxMemoryBytes) {
+        if (messagesPerChannel <= 0) {
+            throw new IllegalArgumentException(
+                    "messagesPerChannel: " + messagesPerChannel + " (expected: > 0)");
+        }
+        if (bytesPerChannel <= 0) {
+            throw new IllegalArgumentException("bytesPerChannel: " + bytesPerChannel + " (expected: > 0)");
+        }
+
+        final long footprint = RecentMessageBuffer.footprint(messagesPerChannel, bytesPerChannel);
+        if (maxMemoryBytes < footprint) {
+            throw new IllegalArgumentException(
+                    "maxMemoryBytes: " + maxMemoryBytes + " (expected: >= " + footprint + ')');
+        }
+
+        this.messagesPerChannel = messagesPerChannel;
+        this.bytesPerChannel = bytesPerChannel;
+        maxChannels = (int) Math.min(Integer.MAX_VALUE, maxMemoryBytes / footprint);
+    }
+
+    /**
+     * Adds the message to the buffer of its channel, evicting the oldest messages of the channel if the
+     * buffer is full.
+     */
+    public void add(ChannelMessageEvent event) {
+        requireNonNull(event, "event");
+
+        synchronized (buffers) {
+            buffer(event.channel()).add(event.messageId(), event.timestamp(), event.user(), event.text());
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} most recent messages of the channel, the oldest first.
+     */
+    public List<RecentMessage> recent(String channel, int limit) {
+        requireNonNull(channel, "channel");
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit: " + limit + " (expected: >= 0)");
+        }
+
+        synchronized (buffers) {
+            final RecentMessageBuffer buffer = buffers.get(channel);
+            if (buffer == null) {
+                return List.of();
+            }
+            return buffer.recent(limit);
+        }
+    }
+
+    /**
+     * Returns the number of channels whose messages are kept.
+     */
+    public int channelCount() {
+        synchronized (buffers) {
+            return buffers.size();
+        }
+    }
+
+    /**
+     * Returns the approximate number of bytes used by the buffers.
+     */
+    public long memoryUsage() {
+        return channelCount() * RecentMessageBuffer.footprint(messagesPerChannel, bytesPerChannel);
+    }
+
+    private RecentMessageBuffer buffer(String channel) {
+        RecentMessageBuffer buffer = buffers.get(channel);
+        if (buffer != null) {
+            return buffer;
+        }
+
+        if (buffers.size() < maxChannels) {
+            buffer = new RecentMessageBuffer(messagesPerChannel, bytesPerChannel);
+        } else {
+            final Iterator<RecentMessageBuffer> it = buffers.values().iterator();
+            buffer = it.next();
+            it.remove();
+            buffer.clear();
+        }
+        buffers.put(channel, buffer);
+        return buffer;
+    }
+}
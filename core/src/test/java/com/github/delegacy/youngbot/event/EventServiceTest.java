@@ -1,11 +1,19 @@
 package com.github.delegacy.youngbot.event;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 
+import com.github.delegacy.youngbot.event.message.ChannelMessageEvent;
 import com.github.delegacy.youngbot.event.message.MessageEvent;
+import com.github.delegacy.youngbot.event.message.RecentMessage;
+import com.github.delegacy.youngbot.event.message.RecentMessageStore;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -47,6 +55,50 @@ class EventServiceTest {
         }
     }
 
+    private static final class HistoryProcessor extends AbstractEventProcessor<ChannelMessageEvent> {
+        @Override
+        protected Mono<Boolean> shouldProcess0(ChannelMessageEvent event) {
+            return Mono.just(true);
+        }
+
+        @Override
+        protected Flux<EventResponse> process0(ChannelMessageEvent event) {
+            return EventContext.current()
+                               .flatMapIterable(ctx -> ctx.recentMessages(10))
+                               .map(RecentMessage::text)
+                               .map(EventResponse::of);
+        }
+    }
+
+    private static ChannelMessageEvent channelMessageEvent(String text) {
+        return new ChannelMessageEvent() {
+            @Override
+            public String channel() {
+                return "channel";
+            }
+
+            @Override
+            public String user() {
+                return "user";
+            }
+
+            @Override
+            public long messageId() {
+                return 0;
+            }
+
+            @Override
+            public long timestamp() {
+                return 0;
+            }
+
+            @Override
+            public String text() {
+                return text;
+            }
+        };
+    }
+
     private final EventService eventService = new EventService(Set.of(new DotProcessor(),
                                                                       new EmptyProcessor(),
                                                                       new StringEmptyProcessor()));
@@ -59,4 +111,84 @@ class EventServiceTest {
                     .expectComplete()
                     .verify();
     }
+
+    @Test
+    void testProcess_recentMessages() throws Exception {
+        final EventService historyEventService =
+                new EventService(Set.of(new HistoryProcessor()), new RecentMessageStore(10, 1024, 1024 * 1024));
+
+        historyEventService.process(channelMessageEvent("first")).blockLast();
+
+        StepVerifier.create(historyEventService.process(channelMessageEvent("second"))
+                                               .map(EventResponse::text))
+                    .expectNext("first", "second")
+                    .expectComplete()
+                    .verify();
+    }
+
+    @Test
+    void testProcess_metrics() throws Exception {
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final EventService meteredEventService = EventService.builder(Set.of(new DotProcessor()))
+                                                             .meterRegistry(meterRegistry)
+                                                             .build();
+
+        StepVerifier.create(meteredEventService.process(MessageEvent.of("...")))
+                    .expectNextCount(1)
+                    .expectComplete()
+                    .verify();
+
+        final String processor = DotProcessor.class.getSimpleName();
+        assertThat(meterRegistry.get("youngbot.event.processor.should.process")
+                                .tag("processor", processor)
+                                .timer()
+                                .count()).isEqualTo(1);
+        assertThat(meterRegistry.get("youngbot.event.processor.matches")
+                                .tag("processor", processor)
+                                .counter()
+                                .count()).isEqualTo(1);
+        assertThat(meterRegistry.get("youngbot.event.processor.process")
+                                .tag("processor", processor)
+                                .timer()
+                                .count()).isEqualTo(1);
+        assertThat(meterRegistry.get("youngbot.event.processor.errors")
+                                .tag("processor", processor)
+                                .counter()
+                                .count()).isZero();
+    }
+
+    @Test
+    void testProcess_metricsOfLambda() throws Exception {
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final EventProcessor lambda = event -> Flux.just(EventResponse.of("lambda"));
+        final EventService meteredEventService = EventService.builder(Set.of(lambda))
+                                                             .meterRegistry(meterRegistry)
+                                                             .build();
+
+        StepVerifier.create(meteredEventService.process(MessageEvent.of("...")))
+                    .expectNextCount(1)
+                    .expectComplete()
+                    .verify();
+
+        // Tagged with the declaring class instead of the generated name of the lambda.
+        assertThat(meterRegistry.get("youngbot.event.processor.process")
+                                .tag("processor", EventServiceTest.class.getSimpleName())
+                                .timer()
+                                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void testProcess_processorAddedLater() throws Exception {
+        final Set<EventProcessor> processors = new LinkedHashSet<>();
+        final EventService mutableEventService = EventService.builder(processors)
+                                                             .meterRegistry(new SimpleMeterRegistry())
+                                                             .build();
+        processors.add(new DotProcessor());
+
+        StepVerifier.create(mutableEventService.process(MessageEvent.of("..."))
+                                               .map(EventResponse::text))
+                    .expectNext(".")
+                    .expectComplete()
+                    .verify();
+    }
 }
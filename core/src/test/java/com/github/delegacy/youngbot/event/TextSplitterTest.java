@@ -0,0 +1,75 @@
+package com.github.delegacy.youngbot.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.test.StepVerifier;
+
+class TextSplitterTest {
+    @Test
+    void testSplit_short() throws Exception {
+        StepVerifier.create(TextSplitter.split("hello", 5))
+                    .expectNext("hello")
+                    .expectComplete()
+                    .verify();
+    }
+
+    @Test
+    void testSplit_lineBreak() throws Exception {
+        StepVerifier.create(TextSplitter.split("one two\nthree four\nfive", 12))
+                    .expectNext("one two")
+                    .expectNext("three four")
+                    .expectNext("five")
+                    .expectComplete()
+                    .verify();
+    }
+
+    @Test
+    void testSplit_whitespace() throws Exception {
+        StepVerifier.create(TextSplitter.split("one two three four", 9))
+                    .expectNext("one two")
+                    .expectNext("three")
+                    .expectNext("four")
+                    .expectComplete()
+                    .verify();
+    }
+
+    @Test
+    void testSplit_word() throws Exception {
+        StepVerifier.create(TextSplitter.split("abcdefghij", 4))
+                    .expectNext("abcd")
+                    .expectNext("efgh")
+                    .expectNext("ij")
+                    .expectComplete()
+                    .verify();
+    }
+
+    @Test
+    void testSplit_surrogatePair() throws Exception {
+        StepVerifier.create(TextSplitter.split("ab\uD83D\uDE00cd", 3))
+                    .expectNext("ab")
+                    .expectNext("\uD83D\uDE00c")
+                    .expectNext("d")
+                    .expectComplete()
+                    .verify();
+    }
+
+    @Test
+    void testSplit_lazy() throws Exception {
+        final String text = "x".repeat(1_000_000);
+
+        StepVerifier.create(TextSplitter.split(text, 1000), 2)
+                    .assertNext(chunk -> assertThat(chunk).hasSize(1000))
+                    .assertNext(chunk -> assertThat(chunk).hasSize(1000))
+                    .thenCancel()
+                    .verify();
+    }
+
+    @Test
+    void testSplit_invalidMaxLength() throws Exception {
+        assertThatThrownBy(() -> TextSplitter.split("hello", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
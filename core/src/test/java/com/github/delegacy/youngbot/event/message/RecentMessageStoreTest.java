@@ -0,0 +1,103 @@
+package com.github.delegacy.youngbot.event.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class RecentMessageStoreTest {
+    private static ChannelMessageEvent event(String channel, long messageId, String text) {
+        return new ChannelMessageEvent() {
+            @Override
+            public String channel() {
+                return channel;
+            }
+
+            @Override
+            public String user() {
+                return "user";
+            }
+
+            @Override
+            public long messageId() {
+                return messageId;
+            }
+
+            @Override
+            public long timestamp() {
+                return messageId * 1000;
+            }
+
+            @Override
+            public String text() {
+                return text;
+            }
+        };
+    }
+
+    @Test
+    void testRecent() throws Exception {
+        final RecentMessageStore store = new RecentMessageStore(3, 1024, 1024 * 1024);
+        for (int i = 1; i <= 5; i++) {
+            store.add(event("channel", i, "message" + i));
+        }
+
+        assertThat(store.recent("channel", 10)).extracting(RecentMessage::messageId)
+                                               .containsExactly(3L, 4L, 5L);
+        assertThat(store.recent("channel", 2)).extracting(RecentMessage::text)
+                                              .containsExactly("message4", "message5");
+        assertThat(store.recent("channel", 1)).first()
+                                              .satisfies(message -> {
+                                                  assertThat(message.user()).isEqualTo("user");
+                                                  assertThat(message.timestamp()).isEqualTo(5000L);
+                                              });
+        assertThat(store.recent("unknown", 10)).isEmpty();
+    }
+
+    @Test
+    void testRecent_evictedByBytes() throws Exception {
+        // "user" + "0123456789" takes 14 bytes, so only 2 messages fit in 32 bytes.
+        final RecentMessageStore store = new RecentMessageStore(10, 32, 1024 * 1024);
+        for (int i = 1; i <= 5; i++) {
+            store.add(event("channel", i, "0123456789"));
+        }
+
+        assertThat(store.recent("channel", 10)).extracting(RecentMessage::messageId)
+                                               .containsExactly(4L, 5L);
+    }
+
+    @Test
+    void testRecent_multiByte() throws Exception {
+        final RecentMessageStore store = new RecentMessageStore(10, 64, 1024 * 1024);
+        store.add(event("channel", 1, "\uC548\uB155 \uD83D\uDE00"));
+        store.add(event("channel", 2, "caf\u00E9"));
+
+        assertThat(store.recent("channel", 10)).extracting(RecentMessage::text)
+                                               .containsExactly("\uC548\uB155 \uD83D\uDE00", "caf\u00E9");
+    }
+
+    @Test
+    void testRecent_truncated() throws Exception {
+        final RecentMessageStore store = new RecentMessageStore(10, 10, 1024 * 1024);
+        store.add(event("channel", 1, "0123456789"));
+
+        assertThat(store.recent("channel", 10)).extracting(RecentMessage::text)
+                                               .containsExactly("012345");
+    }
+
+    @Test
+    void testAdd_evictsLeastRecentlyUsedChannel() throws Exception {
+        final RecentMessageStore store = new RecentMessageStore(4, 128,
+                                                                2 * RecentMessageBuffer.footprint(4, 128));
+        store.add(event("a", 1, "a"));
+        store.add(event("b", 1, "b"));
+        store.add(event("a", 2, "a"));
+        store.add(event("c", 1, "c"));
+
+        assertThat(store.channelCount()).isEqualTo(2);
+        assertThat(store.memoryUsage()).isEqualTo(2 * RecentMessageBuffer.footprint(4, 128));
+        assertThat(store.recent("a", 10)).hasSize(2);
+        assertThat(store.recent("b", 10)).isEmpty();
+        assertThat(store.recent("c", 10)).extracting(RecentMessage::text)
+                                         .containsExactly("c");
+    }
+}
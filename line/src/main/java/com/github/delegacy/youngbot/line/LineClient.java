@@ -1,18 +1,30 @@
 package com.github.delegacy.youngbot.line;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.Lists;
+
 import com.linecorp.bot.client.LineMessagingClient;
+import com.linecorp.bot.model.Multicast;
+import com.linecorp.bot.model.PushMessage;
 import com.linecorp.bot.model.ReplyMessage;
 import com.linecorp.bot.model.message.Message;
 import com.linecorp.bot.model.message.TextMessage;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -21,33 +33,182 @@ import reactor.core.publisher.Mono;
 public class LineClient {
     private static final Logger logger = LoggerFactory.getLogger(LineClient.class);
 
-    private final LineMessagingClient client;
+    /**
+     * The maximum number of recipients of a multicast request.
+     */
+    static final int MAX_MULTICAST_RECIPIENTS = 500;
+
+    /**
+     * The number of requests {@link #multicast(Collection, List)} and {@link #pushMessages(Collection, List)}
+     * send at the same time by default.
+     */
+    static final int DEFAULT_SEND_CONCURRENCY = 4;
+
+    private static List<Message> toMessages(List<String> messages) {
+        return messages.stream()
+                       .map(msg -> (Message) new TextMessage(msg))
+                       .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static List<LineSendResult> toResults(List<String> recipients, @Nullable Throwable cause) {
+        return recipients.stream()
+                         .map(recipient -> cause == null ? LineSendResult.success(recipient)
+                                                         : LineSendResult.failure(recipient, cause))
+                         .collect(Collectors.toUnmodifiableList());
+    }
+
+    private final LineTransport transport;
+
+    private final LineClientMetrics metrics;
 
     /**
      * TBW.
      */
     public LineClient(LineMessagingClient client) {
-        this.client = requireNonNull(client, "client");
+        this(new LineMessagingClientTransport(client));
     }
 
     /**
-     * TBW.
+     * Creates a new instance which calls the LINE Messaging API through the specified
+     * {@link LineMessagingClient}, recording the latency and the errors of each API method to the specified
+     * {@link MeterRegistry}.
+     */
+    public LineClient(LineMessagingClient client, MeterRegistry meterRegistry) {
+        this(new LineMessagingClientTransport(client), meterRegistry);
+    }
+
+    /**
+     * Creates a new instance which calls the LINE Messaging API through the specified {@link LineTransport},
+     * such as {@link ReactorNettyLineTransport}.
+     */
+    public LineClient(LineTransport transport) {
+        this(transport, Metrics.globalRegistry);
+    }
+
+    /**
+     * Creates a new instance which calls the LINE Messaging API through the specified {@link LineTransport},
+     * recording the latency and the errors of each API method to the specified {@link MeterRegistry}.
+     */
+    public LineClient(LineTransport transport, MeterRegistry meterRegistry) {
+        this.transport = requireNonNull(transport, "transport");
+        metrics = new LineClientMetrics(requireNonNull(meterRegistry, "meterRegistry"));
+    }
+
+    /**
+     * Returns the {@link LineMessagingClient} this client was created with.
+     *
+     * @throws IllegalStateException if this client was created with another {@link LineTransport}
      */
     public LineMessagingClient rawClient() {
-        return client;
+        if (!(transport instanceof LineMessagingClientTransport)) {
+            throw new IllegalStateException("Not created with a LineMessagingClient: " + transport);
+        }
+        return ((LineMessagingClientTransport) transport).client();
+    }
+
+    /**
+     * TBW.
+     */
+    public LineTransport transport() {
+        return transport;
     }
 
     /**
      * TBW.
      */
     public Mono<Void> replyMessage(String replyToken, List<String> messages) {
-        return Mono.just(messages.stream()
-                                 .map(msg -> (Message) new TextMessage(msg))
-                                 .collect(Collectors.toUnmodifiableList()))
+        return Mono.just(toMessages(messages))
                    .map(list -> new ReplyMessage(replyToken, list))
-                   .flatMap(r -> Mono.fromFuture(client.replyMessage(r)))
+                   .flatMap(req -> metrics.record("reply", transport.replyMessage(req)))
                    .doOnNext(res -> logger.debug("Replied with replyToken<{}>;res<{}>", replyToken, res))
                    .doOnError(t -> logger.error("Failed to reply with replyToken<{}>", replyToken, t))
                    .then();
     }
+
+    /**
+     * Sends the messages to a user, a group or a room with the push API.
+     */
+    public Mono<Void> pushMessage(String to, List<String> messages) {
+        requireNonNull(to, "to");
+        requireNonNull(messages, "messages");
+
+        return Mono.just(toMessages(messages))
+                   .map(list -> new PushMessage(to, list))
+                   .flatMap(req -> metrics.record("push", transport.pushMessage(req)))
+                   .doOnNext(res -> logger.debug("Pushed to<{}>;res<{}>", to, res))
+                   .doOnError(t -> logger.error("Failed to push to<{}>", to, t))
+                   .then();
+    }
+
+    /**
+     * Sends the messages to each of the users with the push API, one request per user, sending up to
+     * 4 requests at the same time.
+     *
+     * @return the result for each recipient, in the order the requests complete
+     */
+    public Flux<LineSendResult> pushMessages(Collection<String> to, List<String> messages) {
+        return pushMessages(to, messages, DEFAULT_SEND_CONCURRENCY);
+    }
+
+    /**
+     * Sends the messages to each of the users, groups or rooms with the push API, one request per
+     * recipient, sending up to {@code concurrency} requests at the same time.
+     *
+     * @return the result for each recipient, in the order the requests complete
+     */
+    public Flux<LineSendResult> pushMessages(Collection<String> to, List<String> messages, int concurrency) {
+        requireNonNull(to, "to");
+        requireNonNull(messages, "messages");
+        checkArgument(concurrency > 0, "concurrency: %s (expected: > 0)", concurrency);
+
+        final List<Message> list = toMessages(messages);
+        return Flux.fromIterable(List.copyOf(to))
+                   .flatMap(recipient -> {
+                       final PushMessage pushMessage = new PushMessage(recipient, list);
+                       return metrics.record("push", transport.pushMessage(pushMessage))
+                                     .map(res -> LineSendResult.success(recipient))
+                                     .onErrorResume(t -> {
+                                         logger.warn("Failed to push to<{}>", recipient, t);
+                                         return Mono.just(LineSendResult.failure(recipient, t));
+                                     });
+                   }, concurrency);
+    }
+
+    /**
+     * Sends the messages to the users with the multicast API, splitting them into requests of up to
+     * 500 users and sending up to 4 requests at the same time.
+     *
+     * @return the result for each recipient, in the order the requests complete
+     */
+    public Flux<LineSendResult> multicast(Collection<String> to, List<String> messages) {
+        return multicast(to, messages, DEFAULT_SEND_CONCURRENCY);
+    }
+
+    /**
+     * Sends the messages to the users with the multicast API, splitting them into requests of up to
+     * 500 users and sending up to {@code concurrency} requests at the same time. All the recipients of a
+     * request fail together if the request fails.
+     *
+     * @return the result for each recipient, in the order the requests complete
+     */
+    public Flux<LineSendResult> multicast(Collection<String> to, List<String> messages, int concurrency) {
+        requireNonNull(to, "to");
+        requireNonNull(messages, "messages");
+        checkArgument(concurrency > 0, "concurrency: %s (expected: > 0)", concurrency);
+
+        final List<Message> list = toMessages(messages);
+        final List<String> recipients = List.copyOf(new LinkedHashSet<>(to));
+        return Flux.fromIterable(Lists.partition(recipients, MAX_MULTICAST_RECIPIENTS))
+                   .flatMap(batch -> {
+                       final Multicast multicast = new Multicast(new LinkedHashSet<>(batch), list);
+                       return metrics.record("multicast", transport.multicast(multicast))
+                                     .doOnNext(res -> logger.debug("Multicast to {} user(s);res<{}>",
+                                                                   batch.size(), res))
+                                     .flatMapIterable(res -> toResults(batch, null))
+                                     .onErrorResume(t -> {
+                                         logger.warn("Failed to multicast to {} user(s)", batch.size(), t);
+                                         return Flux.fromIterable(toResults(batch, t));
+                                     });
+                   }, concurrency);
+    }
 }
@@ -0,0 +1,47 @@
+package com.github.delegacy.youngbot.line;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.linecorp.bot.model.response.BotApiResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records the latency and the errors of the LINE Messaging API calls made by {@link LineClient}, tagged with
+ * the API method and, for an error, the type of the exception.
+ */
+final class LineClientMetrics {
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    LineClientMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    Mono<BotApiResponse> record(String method, Mono<BotApiResponse> call) {
+        return Mono.defer(() -> {
+            final Timer.Sample sample = Timer.start(meterRegistry);
+            return call.doOnError(t -> error(method, t.getClass().getSimpleName()))
+                       .doFinally(signal -> sample.stop(timer(method)));
+        });
+    }
+
+    private Timer timer(String method) {
+        return timers.computeIfAbsent(method, key -> Timer.builder("youngbot.line.client.requests")
+                                                          .tag("method", key)
+                                                          .register(meterRegistry));
+    }
+
+    private void error(String method, String error) {
+        Counter.builder("youngbot.line.client.errors")
+               .tag("method", method)
+               .tag("error", error)
+               .register(meterRegistry)
+               .increment();
+    }
+}
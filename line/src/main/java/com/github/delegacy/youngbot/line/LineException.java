@@ -0,0 +1,22 @@
+package com.github.delegacy.youngbot.line;
+
+/**
+ * A {@link RuntimeException} that raises when a call to the LINE Messaging API is not successfully completed.
+ */
+public class LineException extends RuntimeException {
+    private static final long serialVersionUID = -3127664260427385871L;
+
+    /**
+     * TBW.
+     */
+    public LineException(String message) {
+        super(message);
+    }
+
+    /**
+     * TBW.
+     */
+    public LineException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
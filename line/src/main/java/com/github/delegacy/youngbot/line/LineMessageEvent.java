@@ -2,21 +2,31 @@ package com.github.delegacy.youngbot.line;
 
 import static java.util.Objects.requireNonNull;
 
-import com.github.delegacy.youngbot.event.message.MessageEvent;
+import com.github.delegacy.youngbot.event.message.ChannelMessageEvent;
 import com.google.common.base.MoreObjects;
 
 /**
  * TBW.
  */
-public final class LineMessageEvent implements MessageEvent,
+public final class LineMessageEvent implements ChannelMessageEvent,
                                                LineReplyableEvent {
     /**
      * TBW.
      */
     public static LineMessageEvent of(String channel, String text, String replyToken) {
+        return of(channel, text, replyToken, "", 0, 0);
+    }
+
+    /**
+     * TBW.
+     */
+    public static LineMessageEvent of(String channel, String text, String replyToken, String user,
+                                      long messageId, long timestamp) {
         return new LineMessageEvent(requireNonNull(channel, "channel"),
                                     requireNonNull(text, "text"),
-                                    requireNonNull(replyToken, "replyToken"));
+                                    requireNonNull(replyToken, "replyToken"),
+                                    requireNonNull(user, "user"),
+                                    messageId, timestamp);
     }
 
     private final String channel;
@@ -25,10 +35,20 @@ public final class LineMessageEvent implements MessageEvent,
 
     private final String replyToken;
 
-    private LineMessageEvent(String channel, String text, String replyToken) {
+    private final String user;
+
+    private final long messageId;
+
+    private final long timestamp;
+
+    private LineMessageEvent(String channel, String text, String replyToken, String user,
+                             long messageId, long timestamp) {
         this.channel = channel;
         this.text = text;
         this.replyToken = replyToken;
+        this.user = user;
+        this.messageId = messageId;
+        this.timestamp = timestamp;
     }
 
     @Override
@@ -46,12 +66,33 @@ public final class LineMessageEvent implements MessageEvent,
         return replyToken;
     }
 
+    /**
+     * Returns the ID of the user who sent the message, or an empty string if unknown.
+     */
+    @Override
+    public String user() {
+        return user;
+    }
+
+    @Override
+    public long messageId() {
+        return messageId;
+    }
+
+    @Override
+    public long timestamp() {
+        return timestamp;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
                           .add("channel", channel())
                           .add("text", text())
                           .add("replyToken", replyToken)
+                          .add("user", user)
+                          .add("messageId", messageId)
+                          .add("timestamp", timestamp)
                           .toString();
     }
 }
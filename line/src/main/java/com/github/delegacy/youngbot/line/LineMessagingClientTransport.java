@@ -0,0 +1,41 @@
+package com.github.delegacy.youngbot.line;
+
+import static java.util.Objects.requireNonNull;
+
+import com.linecorp.bot.client.LineMessagingClient;
+import com.linecorp.bot.model.Multicast;
+import com.linecorp.bot.model.PushMessage;
+import com.linecorp.bot.model.ReplyMessage;
+import com.linecorp.bot.model.response.BotApiResponse;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A {@link LineTransport} which delegates to the {@link LineMessagingClient} of the LINE SDK.
+ */
+final class LineMessagingClientTransport implements LineTransport {
+    private final LineMessagingClient client;
+
+    LineMessagingClientTransport(LineMessagingClient client) {
+        this.client = requireNonNull(client, "client");
+    }
+
+    LineMessagingClient client() {
+        return client;
+    }
+
+    @Override
+    public Mono<BotApiResponse> replyMessage(ReplyMessage replyMessage) {
+        return Mono.fromFuture(() -> client.replyMessage(replyMessage));
+    }
+
+    @Override
+    public Mono<BotApiResponse> pushMessage(PushMessage pushMessage) {
+        return Mono.fromFuture(() -> client.pushMessage(pushMessage));
+    }
+
+    @Override
+    public Mono<BotApiResponse> multicast(Multicast multicast) {
+        return Mono.fromFuture(() -> client.multicast(multicast));
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.delegacy.youngbot.line;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * The result of sending messages to a recipient with {@link LineClient#multicast(Collection, List)} or
+ * {@link LineClient#pushMessages(Collection, List)}.
+ */
+public final class LineSendResult {
+    /**
+     * TBW.
+     */
+    public static LineSendResult success(String to) {
+        return new LineSendResult(requireNonNull(to, "to"), null);
+    }
+
+    /**
+     * TBW.
+     */
+    public static LineSendResult failure(String to, Throwable cause) {
+        return new LineSendResult(requireNonNull(to, "to"), requireNonNull(cause, "cause"));
+    }
+
+    private final String to;
+
+    @Nullable
+    private final Throwable cause;
+
+    private LineSendResult(String to, @Nullable Throwable cause) {
+        this.to = to;
+        this.cause = cause;
+    }
+
+    /**
+     * Returns the ID of the recipient.
+     */
+    public String to() {
+        return to;
+    }
+
+    /**
+     * TBW.
+     */
+    public boolean isSuccess() {
+        return cause == null;
+    }
+
+    /**
+     * Returns the cause of the failure, or {@code null} if the messages were sent.
+     */
+    @Nullable
+    public Throwable cause() {
+        return cause;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("to", to)
+                          .add("cause", cause)
+                          .toString();
+    }
+}
@@ -2,17 +2,32 @@ package com.github.delegacy.youngbot.line;
 
 import static java.util.Objects.requireNonNull;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.github.delegacy.youngbot.event.EventResponse;
 import com.github.delegacy.youngbot.event.EventService;
+import com.github.delegacy.youngbot.event.TextSplitter;
+import com.github.delegacy.youngbot.event.message.ChannelMessageEvent;
+import com.google.common.base.Ascii;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 
 import com.linecorp.bot.model.event.CallbackRequest;
 import com.linecorp.bot.model.event.MessageEvent;
 import com.linecorp.bot.model.event.message.MessageContent;
 import com.linecorp.bot.model.event.message.TextMessageContent;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -22,24 +37,85 @@ import reactor.core.publisher.Mono;
 public class LineService {
     private static final Logger logger = LoggerFactory.getLogger(LineService.class);
 
+    /**
+     * TBW.
+     */
+    public static LineServiceBuilder builder(EventService eventService, LineClient lineClient) {
+        return new LineServiceBuilder(requireNonNull(eventService, "eventService"),
+                                      requireNonNull(lineClient, "lineClient"));
+    }
+
     private final EventService eventService;
 
     private final LineClient lineClient;
 
+    private final Duration replyTimeout;
+
+    private final Duration replyMargin;
+
+    private final ReplyOverflowStrategy replyOverflowStrategy;
+
+    private final boolean orderedBySource;
+
+    private final int eventConcurrency;
+
+    private final Counter lateFallbacks;
+
+    private final Counter errorFallbacks;
+
+    private final Counter overflows;
+
     /**
      * TBW.
      */
     public LineService(EventService eventService, LineClient lineClient) {
+        this(eventService, lineClient, LineServiceBuilder.DEFAULT_REPLY_TIMEOUT,
+             LineServiceBuilder.DEFAULT_REPLY_MARGIN, LineServiceBuilder.DEFAULT_REPLY_OVERFLOW_STRATEGY, false,
+             LineServiceBuilder.DEFAULT_EVENT_CONCURRENCY, Metrics.globalRegistry);
+    }
+
+    LineService(EventService eventService, LineClient lineClient, Duration replyTimeout, Duration replyMargin,
+                ReplyOverflowStrategy replyOverflowStrategy, boolean orderedBySource, int eventConcurrency,
+                MeterRegistry meterRegistry) {
         this.eventService = requireNonNull(eventService, "eventService");
         this.lineClient = requireNonNull(lineClient, "lineClient");
+        this.replyTimeout = requireNonNull(replyTimeout, "replyTimeout");
+        this.replyMargin = requireNonNull(replyMargin, "replyMargin");
+        this.replyOverflowStrategy = requireNonNull(replyOverflowStrategy, "replyOverflowStrategy");
+        this.orderedBySource = orderedBySource;
+        this.eventConcurrency = eventConcurrency;
+        requireNonNull(meterRegistry, "meterRegistry");
+
+        lateFallbacks = Counter.builder("youngbot.line.reply.fallbacks")
+                               .tag("reason", "deadline")
+                               .register(meterRegistry);
+        errorFallbacks = Counter.builder("youngbot.line.reply.fallbacks")
+                                .tag("reason", "error")
+                                .register(meterRegistry);
+        overflows = Counter.builder("youngbot.line.reply.overflows")
+                           .tag("strategy", Ascii.toLowerCase(replyOverflowStrategy.name()))
+                           .register(meterRegistry);
     }
 
     /**
      * TBW.
      */
     public Mono<Void> handleCallback(CallbackRequest callback) {
-        return toEventFlux(callback)
-                .flatMap(this::processEvent)
+        final Flux<Void> processed;
+        if (orderedBySource) {
+            // The events are grouped up front instead of with groupBy(), which stalls when there are more
+            // sources than the concurrency.
+            processed = toEventFlux(callback)
+                    .collect(LinkedHashMap<String, List<LineMessageEvent>>::new,
+                             (groups, event) -> groups.computeIfAbsent(event.channel(), k -> new ArrayList<>())
+                                                      .add(event))
+                    .flatMapMany(groups -> Flux.fromIterable(groups.values()))
+                    .flatMap(group -> Flux.fromIterable(group).concatMap(this::processEvent), eventConcurrency);
+        } else {
+            processed = toEventFlux(callback).flatMap(this::processEvent, eventConcurrency);
+        }
+
+        return processed
                 .onErrorResume(t -> {
                     logger.warn("Failed to process an event of callback<{}> and will resume the next",
                                 callback, t);
@@ -67,10 +143,41 @@ public class LineService {
                        final String channel = messageEvent.getSource().getSenderId();
                        logger.debug("Received text<{}> from channel<{}>", text, channel);
 
-                       return Mono.just(LineMessageEvent.of(channel, text, messageEvent.getReplyToken()));
+                       final String user = messageEvent.getSource().getUserId();
+                       return Mono.just(LineMessageEvent.of(channel, text, messageEvent.getReplyToken(),
+                                                            user != null ? user : "",
+                                                            toMessageId(textMessageContent.getId()),
+                                                            toEpochMilli(messageEvent.getTimestamp())));
                    });
     }
 
+    private static long toMessageId(@Nullable String id) {
+        if (id == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long toEpochMilli(@Nullable Instant timestamp) {
+        return timestamp != null ? timestamp.toEpochMilli() : 0;
+    }
+
+    /**
+     * Returns whether a reply failed because its reply token expired or was used already, which LINE
+     * reports as {@code Invalid reply token}.
+     */
+    private static boolean isInvalidReplyToken(Throwable cause) {
+        return Throwables.getCausalChain(cause)
+                         .stream()
+                         .map(Throwable::getMessage)
+                         .anyMatch(message -> message != null &&
+                                              Ascii.toLowerCase(message).contains("invalid reply token"));
+    }
+
     private Mono<Void> processEvent(LineEvent event) {
         final var flux = eventService.process(event);
 
@@ -79,10 +186,82 @@ public class LineService {
         }
 
         final var cast = (LineReplyableEvent) event;
-        return flux.take(5)
-                   .map(EventResponse::text)
-                   .collectList()
-                   .flatMap(list -> lineClient.replyMessage(cast.replyToken(), list))
+        // A long response is split into the messages a reply can carry, which are then sent in order.
+        final Flux<String> texts = flux.concatMap(res -> TextSplitter.split(
+                                               res.text(), ReplyOverflowStrategy.MAX_TEXT_LENGTH))
+                                       .cache();
+        // The responses are replied to as long as the reply token is valid, and pushed afterwards.
+        final long remainingMillis = Math.max(0, replyDeadline(event) - System.currentTimeMillis());
+        return texts.takeUntilOther(Mono.delay(Duration.ofMillis(remainingMillis)))
+                    .collectList()
+                    .flatMap(onTime -> replyAll(cast, onTime).then(
+                            texts.skip(onTime.size())
+                                 .collectList()
+                                 .flatMap(late -> pushLate(cast, late))));
+    }
+
+    /**
+     * Returns the time in milliseconds until when the reply token of the event is used, which is the reply
+     * margin earlier than the token is supposed to expire. The time the event was received is used if the
+     * event does not have its timestamp.
+     */
+    private long replyDeadline(LineEvent event) {
+        long timestamp = 0;
+        if (event instanceof ChannelMessageEvent) {
+            timestamp = ((ChannelMessageEvent) event).timestamp();
+        }
+        if (timestamp <= 0) {
+            timestamp = System.currentTimeMillis();
+        }
+        return timestamp + replyTimeout.toMillis() - replyMargin.toMillis();
+    }
+
+    private Mono<Void> replyAll(LineReplyableEvent event, List<String> texts) {
+        if (texts.size() <= ReplyOverflowStrategy.MAX_MESSAGES) {
+            return reply(event, texts);
+        }
+
+        logger.debug("Got {} responses for event<{}>, more than a reply can carry;strategy<{}>",
+                     texts.size(), event, replyOverflowStrategy);
+        overflows.increment();
+        final List<List<String>> batches = replyOverflowStrategy.batch(texts);
+        return reply(event, batches.get(0)).then(pushAll(event, batches.subList(1, batches.size())));
+    }
+
+    private Mono<Void> reply(LineReplyableEvent event, List<String> texts) {
+        if (texts.isEmpty()) {
+            return Mono.empty();
+        }
+
+        // Only a reply token which is not valid any more is worth pushing the messages instead of.
+        return lineClient.replyMessage(event.replyToken(), texts)
+                         .onErrorResume(LineService::isInvalidReplyToken, t -> {
+                             errorFallbacks.increment();
+                             return push(event, texts);
+                         });
+    }
+
+    private Mono<Void> pushLate(LineReplyableEvent event, List<String> texts) {
+        if (texts.isEmpty()) {
+            return Mono.empty();
+        }
+
+        lateFallbacks.increment();
+        return pushAll(event, Lists.partition(texts, ReplyOverflowStrategy.MAX_MESSAGES));
+    }
+
+    private Mono<Void> pushAll(LineReplyableEvent event, List<List<String>> batches) {
+        return Flux.fromIterable(batches)
+                   .concatMap(batch -> push(event, batch))
                    .then();
     }
+
+    private Mono<Void> push(LineReplyableEvent event, List<String> texts) {
+        if (texts.isEmpty()) {
+            return Mono.empty();
+        }
+
+        logger.debug("Pushing {} message(s) to channel<{}>", texts.size(), event.channel());
+        return lineClient.pushMessage(event.channel(), texts);
+    }
 }
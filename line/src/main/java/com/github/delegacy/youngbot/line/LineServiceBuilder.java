@@ -0,0 +1,113 @@
+package com.github.delegacy.youngbot.line;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+import com.github.delegacy.youngbot.event.EventService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import reactor.util.concurrent.Queues;
+
+/**
+ * TBW.
+ */
+public final class LineServiceBuilder {
+    static final Duration DEFAULT_REPLY_TIMEOUT = Duration.ofSeconds(30);
+
+    static final Duration DEFAULT_REPLY_MARGIN = Duration.ofSeconds(2);
+
+    static final ReplyOverflowStrategy DEFAULT_REPLY_OVERFLOW_STRATEGY = ReplyOverflowStrategy.TRUNCATE;
+
+    static final int DEFAULT_EVENT_CONCURRENCY = Queues.SMALL_BUFFER_SIZE;
+
+    private final EventService eventService;
+
+    private final LineClient lineClient;
+
+    private Duration replyTimeout = DEFAULT_REPLY_TIMEOUT;
+
+    private Duration replyMargin = DEFAULT_REPLY_MARGIN;
+
+    private ReplyOverflowStrategy replyOverflowStrategy = DEFAULT_REPLY_OVERFLOW_STRATEGY;
+
+    private boolean orderedBySource;
+
+    private int eventConcurrency = DEFAULT_EVENT_CONCURRENCY;
+
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    LineServiceBuilder(EventService eventService, LineClient lineClient) {
+        this.eventService = eventService;
+        this.lineClient = lineClient;
+    }
+
+    /**
+     * Sets how long after an event occurred its reply token is used. The responses produced later are
+     * sent with the push API instead.
+     */
+    public LineServiceBuilder replyTimeout(Duration replyTimeout) {
+        requireNonNull(replyTimeout, "replyTimeout");
+        checkArgument(!replyTimeout.isNegative(), "replyTimeout: %s (expected: >= 0)", replyTimeout);
+        this.replyTimeout = replyTimeout;
+        return this;
+    }
+
+    /**
+     * Sets how long before the reply timeout the reply token stops being used, leaving time for the reply
+     * request itself to reach LINE. Two seconds are used by default.
+     */
+    public LineServiceBuilder replyMargin(Duration replyMargin) {
+        requireNonNull(replyMargin, "replyMargin");
+        checkArgument(!replyMargin.isNegative(), "replyMargin: %s (expected: >= 0)", replyMargin);
+        this.replyMargin = replyMargin;
+        return this;
+    }
+
+    /**
+     * Sets how the responses to an event are sent when there are more than a reply can carry.
+     * {@link ReplyOverflowStrategy#TRUNCATE} is used by default.
+     */
+    public LineServiceBuilder replyOverflowStrategy(ReplyOverflowStrategy replyOverflowStrategy) {
+        this.replyOverflowStrategy = requireNonNull(replyOverflowStrategy, "replyOverflowStrategy");
+        return this;
+    }
+
+    /**
+     * Sets whether the events of a callback from the same source, a user, group or room, are processed
+     * one after another in the order they were sent. The events from different sources are still
+     * processed in parallel.
+     */
+    public LineServiceBuilder orderedBySource(boolean orderedBySource) {
+        this.orderedBySource = orderedBySource;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of the events of a callback processed at the same time, or of the sources
+     * if {@link #orderedBySource(boolean)} is enabled.
+     */
+    public LineServiceBuilder eventConcurrency(int eventConcurrency) {
+        checkArgument(eventConcurrency > 0, "eventConcurrency: %s (expected: > 0)", eventConcurrency);
+        this.eventConcurrency = eventConcurrency;
+        return this;
+    }
+
+    /**
+     * TBW.
+     */
+    public LineServiceBuilder meterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+        return this;
+    }
+
+    /**
+     * TBW.
+     */
+    public LineService build() {
+        return new LineService(eventService, lineClient, replyTimeout, replyMargin, replyOverflowStrategy,
+                               orderedBySource, eventConcurrency, meterRegistry);
+    }
+}
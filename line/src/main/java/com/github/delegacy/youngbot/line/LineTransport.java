@@ -0,0 +1,28 @@
+package com.github.delegacy.youngbot.line;
+
+import com.linecorp.bot.model.Multicast;
+import com.linecorp.bot.model.PushMessage;
+import com.linecorp.bot.model.ReplyMessage;
+import com.linecorp.bot.model.response.BotApiResponse;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Calls the LINE Messaging API methods used by {@link LineClient}.
+ */
+public interface LineTransport {
+    /**
+     * TBW.
+     */
+    Mono<BotApiResponse> replyMessage(ReplyMessage replyMessage);
+
+    /**
+     * TBW.
+     */
+    Mono<BotApiResponse> pushMessage(PushMessage pushMessage);
+
+    /**
+     * TBW.
+     */
+    Mono<BotApiResponse> multicast(Multicast multicast);
+}
@@ -0,0 +1,117 @@
+package com.github.delegacy.youngbot.line;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.bot.model.Multicast;
+import com.linecorp.bot.model.PushMessage;
+import com.linecorp.bot.model.ReplyMessage;
+import com.linecorp.bot.model.objectmapper.ModelObjectMapper;
+import com.linecorp.bot.model.response.BotApiResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.ByteBufMono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+/**
+ * A {@link LineTransport} on Reactor Netty's {@link HttpClient}, which waits for the responses on the event
+ * loops instead of the thread pool of the LINE SDK.
+ */
+public final class ReactorNettyLineTransport implements LineTransport {
+    private static final Logger logger = LoggerFactory.getLogger(ReactorNettyLineTransport.class);
+
+    private static final ObjectMapper objectMapper = ModelObjectMapper.createNewObjectMapper();
+
+    @Nullable
+    private static String errorMessage(String body) {
+        try {
+            final JsonNode message = objectMapper.readTree(body).get("message");
+            return message != null ? message.asText() : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * TBW.
+     */
+    public static ReactorNettyLineTransportBuilder builder(String channelToken) {
+        return new ReactorNettyLineTransportBuilder(requireNonNull(channelToken, "channelToken"));
+    }
+
+    private final HttpClient httpClient;
+
+    ReactorNettyLineTransport(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public Mono<BotApiResponse> replyMessage(ReplyMessage replyMessage) {
+        return call("/v2/bot/message/reply", requireNonNull(replyMessage, "replyMessage"));
+    }
+
+    @Override
+    public Mono<BotApiResponse> pushMessage(PushMessage pushMessage) {
+        return call("/v2/bot/message/push", requireNonNull(pushMessage, "pushMessage"));
+    }
+
+    @Override
+    public Mono<BotApiResponse> multicast(Multicast multicast) {
+        return call("/v2/bot/message/multicast", requireNonNull(multicast, "multicast"));
+    }
+
+    /**
+     * Opens up to {@code connections} connections to the API so that the first calls do not pay for
+     * the DNS lookup and the TCP and TLS handshakes. Only one connection is opened over HTTP/2, as all
+     * calls share it. Failures are logged and ignored.
+     */
+    public Mono<Void> warmUp(int connections) {
+        return Flux.range(0, connections)
+                   .flatMap(i -> httpClient.head()
+                                           .uri("/")
+                                           .responseSingle((res, body) -> body.then())
+                                           .onErrorResume(t -> {
+                                               logger.warn("Failed to warm up a connection to LINE", t);
+                                               return Mono.empty();
+                                           }), Math.max(connections, 1))
+                   .then();
+    }
+
+    private Mono<BotApiResponse> call(String path, Object request) {
+        return Mono.fromCallable(() -> objectMapper.writeValueAsBytes(request))
+                   .flatMap(json -> httpClient.post()
+                                              .uri(path)
+                                              .send(ByteBufFlux.fromInbound(Mono.just(json)))
+                                              .responseSingle((res, body) -> toResponse(path, res, body)));
+    }
+
+    private static Mono<BotApiResponse> toResponse(String path, HttpClientResponse res, ByteBufMono content) {
+        final int status = res.status().code();
+        if (status / 100 == 2) {
+            final String requestId = res.responseHeaders().get("X-Line-Request-Id");
+            return content.then(Mono.fromSupplier(() -> new BotApiResponse(requestId, "", List.of())));
+        }
+
+        return content.asString(StandardCharsets.UTF_8)
+                      .defaultIfEmpty("")
+                      .flatMap(body -> {
+                          logger.error("Failed to call path<{}>;status<{}>;body<{}>", path, status, body);
+                          return Mono.error(new LineException("Failed to call " + path + ";status:" + status +
+                                                              ";message:" + errorMessage(body)));
+                      });
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.delegacy.youngbot.line;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * TBW.
+ */
+public final class ReactorNettyLineTransportBuilder {
+    static final String DEFAULT_API_BASE_URL = "https://api.line.me";
+
+    static final int DEFAULT_MAX_CONNECTIONS = 100;
+
+    static final int DEFAULT_PENDING_ACQUIRE_MAX_COUNT = 1000;
+
+    private final String channelToken;
+
+    private String apiBaseUrl = DEFAULT_API_BASE_URL;
+
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+
+    private int pendingAcquireMaxCount = DEFAULT_PENDING_ACQUIRE_MAX_COUNT;
+
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    private boolean http2 = true;
+
+    ReactorNettyLineTransportBuilder(String channelToken) {
+        this.channelToken = channelToken;
+    }
+
+    /**
+     * Sets the base URL of the API, {@code https://api.line.me} by default.
+     */
+    public ReactorNettyLineTransportBuilder apiBaseUrl(String apiBaseUrl) {
+        this.apiBaseUrl = requireNonNull(apiBaseUrl, "apiBaseUrl");
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of connections to the API and the maximum number of calls waiting for
+     * a connection, beyond which calls fail immediately.
+     */
+    public ReactorNettyLineTransportBuilder pool(int maxConnections, int pendingAcquireMaxCount) {
+        checkArgument(maxConnections > 0, "maxConnections: %s (expected: > 0)", maxConnections);
+        checkArgument(pendingAcquireMaxCount > 0,
+                      "pendingAcquireMaxCount: %s (expected: > 0)", pendingAcquireMaxCount);
+        this.maxConnections = maxConnections;
+        this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        return this;
+    }
+
+    /**
+     * Sets how long an idle connection is kept in the pool.
+     */
+    public ReactorNettyLineTransportBuilder maxIdleTime(Duration maxIdleTime) {
+        requireNonNull(maxIdleTime, "maxIdleTime");
+        checkArgument(!maxIdleTime.isNegative() && !maxIdleTime.isZero(),
+                      "maxIdleTime: %s (expected: > 0)", maxIdleTime);
+        this.maxIdleTime = maxIdleTime;
+        return this;
+    }
+
+    /**
+     * Sets whether HTTP/2 is negotiated over TLS, falling back to HTTP/1.1 when the server does not
+     * support it. HTTP/1.1 is always used for a cleartext base URL.
+     */
+    public ReactorNettyLineTransportBuilder http2(boolean http2) {
+        this.http2 = http2;
+        return this;
+    }
+
+    /**
+     * TBW.
+     */
+    public ReactorNettyLineTransport build() {
+        final ConnectionProvider provider = ConnectionProvider.builder("youngbot-line")
+                                                              .maxConnections(maxConnections)
+                                                              .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                                                              .maxIdleTime(maxIdleTime)
+                                                              .build();
+        HttpClient httpClient = HttpClient.create(provider)
+                                          .baseUrl(apiBaseUrl)
+                                          .headers(headers -> {
+                                              headers.set(HttpHeaderNames.AUTHORIZATION,
+                                                          "Bearer " + channelToken);
+                                              headers.set(HttpHeaderNames.CONTENT_TYPE,
+                                                          HttpHeaderValues.APPLICATION_JSON);
+                                          });
+        if (http2 && apiBaseUrl.startsWith("https:")) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                                   .secure();
+        }
+        return new ReactorNettyLineTransport(httpClient);
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.delegacy.youngbot.line;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * How {@link LineService} sends the responses to an event when there are more than a reply can carry,
+ * which is 5 messages.
+ */
+public enum ReplyOverflowStrategy {
+    /**
+     * Joins the responses with a newline into as few messages as possible without exceeding
+     * 5000 characters each, and pushes the messages which still do not fit.
+     */
+    CONCATENATE {
+        @Override
+        List<List<String>> batch(List<String> texts) {
+            final List<String> joined = new ArrayList<>();
+            final StringBuilder buf = new StringBuilder();
+            for (String text : texts) {
+                if (buf.length() > 0 && buf.length() + 1 + text.length() > MAX_TEXT_LENGTH) {
+                    joined.add(buf.toString());
+                    buf.setLength(0);
+                }
+                if (buf.length() > 0) {
+                    buf.append('\n');
+                }
+                buf.append(text);
+            }
+            if (buf.length() > 0) {
+                joined.add(buf.toString());
+            }
+            return Lists.partition(joined, MAX_MESSAGES);
+        }
+    },
+    /**
+     * Replies with the first 5 responses and pushes the rest in batches of 5.
+     */
+    PUSH {
+        @Override
+        List<List<String>> batch(List<String> texts) {
+            return Lists.partition(texts, MAX_MESSAGES);
+        }
+    },
+    /**
+     * Replies with the first 5 responses and drops the rest, appending a marker with
+     * the number of the dropped responses to the last message.
+     */
+    TRUNCATE {
+        @Override
+        List<List<String>> batch(List<String> texts) {
+            final List<String> truncated = new ArrayList<>(texts.subList(0, MAX_MESSAGES));
+            final String marker = "\n... (" + (texts.size() - MAX_MESSAGES) + " more)";
+            final String last = truncated.get(MAX_MESSAGES - 1);
+            final int end = Math.min(last.length(), MAX_TEXT_LENGTH - marker.length());
+            truncated.set(MAX_MESSAGES - 1, last.substring(0, end) + marker);
+            return List.of(truncated);
+        }
+    };
+
+    /**
+     * The maximum number of messages in a reply or a push.
+     */
+    static final int MAX_MESSAGES = 5;
+
+    /**
+     * The maximum number of characters in a text message.
+     */
+    static final int MAX_TEXT_LENGTH = 5000;
+
+    /**
+     * Splits the responses which overflow a reply into the batches to send. The first batch is replied and
+     * the others are pushed, all in the returned order.
+     */
+    abstract List<List<String>> batch(List<String> texts);
+}
@@ -1,6 +1,7 @@
 package com.github.delegacy.youngbot.line;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -8,29 +9,45 @@ import static org.mockito.Mockito.when;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.linecorp.bot.client.LineMessagingClient;
+import com.linecorp.bot.model.PushMessage;
 import com.linecorp.bot.model.ReplyMessage;
 import com.linecorp.bot.model.message.TextMessage;
 import com.linecorp.bot.model.response.BotApiResponse;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
 import reactor.test.StepVerifier;
 
 @ExtendWith(MockitoExtension.class)
 class LineClientTest {
+    private static final Pattern RECIPIENT = Pattern.compile("\"U\\d+\"");
+
     @Mock
     private LineMessagingClient rawClient;
 
-    @InjectMocks
     private LineClient client;
 
+    @BeforeEach
+    void beforeEach() {
+        client = new LineClient(rawClient);
+    }
+
     @Test
     void testReplyMessage() throws Exception {
         when(rawClient.replyMessage(any(ReplyMessage.class))).thenReturn(
@@ -46,4 +63,99 @@ class LineClientTest {
         final var textMessage = (TextMessage) captor.getValue().getMessages().get(0);
         assertThat(textMessage.getText()).isEqualTo("PONG");
     }
+
+    @Test
+    void testMulticast() throws Exception {
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final DisposableServer server =
+                HttpServer.create()
+                          .host("127.0.0.1")
+                          .port(0)
+                          .route(routes -> routes.post("/v2/bot/message/multicast", (req, res) -> req
+                                  .receive()
+                                  .aggregate()
+                                  .asString()
+                                  .flatMap(json -> {
+                                      batchSizes.add((int) RECIPIENT.matcher(json).results().count());
+                                      final int status = json.contains("\"U1000\"") ? 400 : 200;
+                                      return res.status(status)
+                                                .header("Content-Type", "application/json")
+                                                .sendString(Mono.just("{}"))
+                                                .then();
+                                  })))
+                          .bindNow();
+        try {
+            final var stubClient = new LineClient(
+                    ReactorNettyLineTransport.builder("channelToken")
+                                             .apiBaseUrl("http://127.0.0.1:" + server.port())
+                                             .build());
+            final List<String> to = IntStream.range(0, 1001)
+                                             .mapToObj(i -> "U" + i)
+                                             .collect(Collectors.toList());
+
+            final List<LineSendResult> results = stubClient.multicast(to, List.of("hello"), 2)
+                                                           .collectList()
+                                                           .block();
+
+            assertThat(batchSizes).containsExactlyInAnyOrder(500, 500, 1);
+            assertThat(results).hasSize(1001);
+            assertThat(results).filteredOn(result -> !result.isSuccess())
+                               .singleElement()
+                               .satisfies(result -> {
+                                   assertThat(result.to()).isEqualTo("U1000");
+                                   assertThat(result.cause()).isInstanceOf(LineException.class);
+                               });
+        } finally {
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    void testPushMessages() throws Exception {
+        when(rawClient.pushMessage(any(PushMessage.class))).thenAnswer(invocation -> {
+            final PushMessage pushMessage = invocation.getArgument(0);
+            if ("U2".equals(pushMessage.getTo())) {
+                return CompletableFuture.failedFuture(new IllegalStateException("U2"));
+            }
+            return CompletableFuture.completedFuture(new BotApiResponse("requestId", "message",
+                                                                        Collections.emptyList()));
+        });
+
+        StepVerifier.create(client.pushMessages(List.of("U1", "U2", "U3"), List.of("hello"))
+                                  .collectMap(LineSendResult::to, LineSendResult::isSuccess))
+                    .assertNext(results -> assertThat(results).containsOnly(entry("U1", true),
+                                                                            entry("U2", false),
+                                                                            entry("U3", true)))
+                    .expectComplete()
+                    .verify();
+    }
+
+    @Test
+    void testMetrics() throws Exception {
+        when(rawClient.pushMessage(any(PushMessage.class))).thenAnswer(invocation -> {
+            final PushMessage pushMessage = invocation.getArgument(0);
+            if ("U2".equals(pushMessage.getTo())) {
+                return CompletableFuture.failedFuture(new IllegalStateException("U2"));
+            }
+            return CompletableFuture.completedFuture(new BotApiResponse("requestId", "message",
+                                                                        Collections.emptyList()));
+        });
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final var meteredClient = new LineClient(new LineMessagingClientTransport(rawClient), meterRegistry);
+
+        StepVerifier.create(meteredClient.pushMessages(List.of("U1", "U2", "U3"), List.of("hello")))
+                    .expectNextCount(3)
+                    .expectComplete()
+                    .verify();
+
+        assertThat(meterRegistry.get("youngbot.line.client.requests")
+                                .tag("method", "push")
+                                .timer()
+                                .count()).isEqualTo(3);
+        assertThat(meterRegistry.get("youngbot.line.client.errors")
+                                .tag("method", "push")
+                                .tag("error", "IllegalStateException")
+                                .counter()
+                                .count()).isEqualTo(1);
+    }
 }
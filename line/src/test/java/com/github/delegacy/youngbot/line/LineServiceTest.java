@@ -4,17 +4,22 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -27,6 +32,8 @@ import com.linecorp.bot.model.event.MessageEvent;
 import com.linecorp.bot.model.event.message.TextMessageContent;
 import com.linecorp.bot.model.event.source.UserSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -49,6 +56,7 @@ class LineServiceTest {
                                              .replyToken(evt.replyToken())
                                              .source(UserSource.builder().userId(evt.channel()).build())
                                              .message(TextMessageContent.builder().text(evt.text()).build())
+                                             .timestamp(Instant.ofEpochMilli(evt.timestamp()))
                                              .build())
                      .collect(Collectors.toUnmodifiableList());
     }
@@ -62,9 +70,19 @@ class LineServiceTest {
     @Captor
     private ArgumentCaptor<List<String>> captor;
 
-    @InjectMocks
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private LineService lineService;
 
+    @BeforeEach
+    void beforeEach() {
+        lineService = LineService.builder(eventService, lineClient)
+                                 .replyTimeout(Duration.ofMillis(200))
+                                 .replyMargin(Duration.ZERO)
+                                 .meterRegistry(meterRegistry)
+                                 .build();
+    }
+
     @Test
     void testHandleCallback() throws Exception {
         final var event = LineMessageEvent.of("userId", "ping", "replyToken");
@@ -96,4 +114,164 @@ class LineServiceTest {
         assertThat(captor.getValue().size()).isEqualTo(5);
         assertThat(captor.getValue().get(0)).isEqualTo("PONG");
     }
+
+    @Test
+    void testHandleCallback_longResponseIsSplit() throws Exception {
+        final var event = LineMessageEvent.of("userId", "ping", "replyToken");
+        final String first = "a".repeat(3000);
+        final String second = "b".repeat(3000);
+        when(eventService.process(any())).thenReturn(Flux.just(EventResponse.of(first + '\n' + second)));
+        when(lineClient.replyMessage(anyString(), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(lineService.handleCallback(toCallbackRequest(event)))
+                    .expectComplete()
+                    .verify();
+
+        verify(lineClient).replyMessage(eq("replyToken"), captor.capture());
+
+        assertThat(captor.getValue()).containsExactly(first, second);
+    }
+
+    @Test
+    void testHandleCallback_lateResponsesArePushed() throws Exception {
+        final var event = LineMessageEvent.of("userId", "ping", "replyToken");
+        when(eventService.process(any())).thenReturn(
+                Flux.just(EventResponse.of("first"))
+                    .concatWith(Mono.delay(Duration.ofSeconds(1)).map(n -> EventResponse.of("late"))));
+        when(lineClient.replyMessage(anyString(), any())).thenReturn(Mono.empty());
+        when(lineClient.pushMessage(anyString(), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(lineService.handleCallback(toCallbackRequest(event)))
+                    .expectComplete()
+                    .verify();
+
+        verify(lineClient).replyMessage(eq("replyToken"), captor.capture());
+        assertThat(captor.getValue()).containsExactly("first");
+        verify(lineClient).pushMessage(eq("userId"), captor.capture());
+        assertThat(captor.getValue()).containsExactly("late");
+        assertThat(meterRegistry.get("youngbot.line.reply.fallbacks").tag("reason", "deadline")
+                                .counter().count()).isOne();
+    }
+
+    @Test
+    void testHandleCallback_expiredReplyToken() throws Exception {
+        final long anHourAgo = System.currentTimeMillis() - Duration.ofHours(1).toMillis();
+        final var event = LineMessageEvent.of("userId", "ping", "replyToken", "userId", 1, anHourAgo);
+        when(eventService.process(any())).thenReturn(Flux.just(EventResponse.of("PONG")));
+        when(lineClient.pushMessage(anyString(), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(lineService.handleCallback(toCallbackRequest(event)))
+                    .expectComplete()
+                    .verify();
+
+        verify(lineClient, never()).replyMessage(anyString(), any());
+        verify(lineClient).pushMessage(eq("userId"), captor.capture());
+        assertThat(captor.getValue()).containsExactly("PONG");
+    }
+
+    @Test
+    void testHandleCallback_replyFailure() throws Exception {
+        final var event = LineMessageEvent.of("userId", "ping", "replyToken");
+        when(eventService.process(any())).thenReturn(Flux.just(EventResponse.of("PONG")));
+        when(lineClient.replyMessage(anyString(), any())).thenReturn(
+                Mono.error(new LineException("Invalid reply token")));
+        when(lineClient.pushMessage(anyString(), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(lineService.handleCallback(toCallbackRequest(event)))
+                    .expectComplete()
+                    .verify();
+
+        verify(lineClient).pushMessage(eq("userId"), captor.capture());
+        assertThat(captor.getValue()).containsExactly("PONG");
+        assertThat(meterRegistry.get("youngbot.line.reply.fallbacks").tag("reason", "error")
+                                .counter().count()).isOne();
+    }
+
+    @Test
+    void testHandleCallback_replyFailureNotPushed() throws Exception {
+        final var event = LineMessageEvent.of("userId", "ping", "replyToken");
+        when(eventService.process(any())).thenReturn(Flux.just(EventResponse.of("PONG")));
+        when(lineClient.replyMessage(anyString(), any())).thenReturn(
+                Mono.error(new LineException("Failed to call /v2/bot/message/reply;status:500")));
+
+        StepVerifier.create(lineService.handleCallback(toCallbackRequest(event)))
+                    .expectComplete()
+                    .verify();
+
+        // The reply token may still be valid, so the messages are not pushed to avoid duplicates.
+        verify(lineClient, never()).pushMessage(anyString(), any());
+    }
+
+    @Test
+    void testHandleCallback_replyMargin() throws Exception {
+        final var event = LineMessageEvent.of("userId", "ping", "replyToken");
+        when(eventService.process(any())).thenReturn(Flux.just(EventResponse.of("PONG")));
+        when(lineClient.pushMessage(anyString(), any())).thenReturn(Mono.empty());
+
+        final var marginService = LineService.builder(eventService, lineClient)
+                                             .replyTimeout(Duration.ofSeconds(1))
+                                             .replyMargin(Duration.ofSeconds(1))
+                                             .meterRegistry(meterRegistry)
+                                             .build();
+        StepVerifier.create(marginService.handleCallback(toCallbackRequest(event)))
+                    .expectComplete()
+                    .verify();
+
+        verify(lineClient, never()).replyMessage(anyString(), any());
+        verify(lineClient).pushMessage(eq("userId"), captor.capture());
+        assertThat(captor.getValue()).containsExactly("PONG");
+    }
+
+    @Test
+    void testHandleCallback_pushOverflow() throws Exception {
+        final var event = LineMessageEvent.of("userId", "ping", "replyToken");
+        when(eventService.process(any())).thenReturn(
+                Flux.range(1, 7).map(i -> EventResponse.of(String.valueOf(i))));
+        when(lineClient.replyMessage(anyString(), any())).thenReturn(Mono.empty());
+        when(lineClient.pushMessage(anyString(), any())).thenReturn(Mono.empty());
+
+        final var pushService = LineService.builder(eventService, lineClient)
+                                           .replyOverflowStrategy(ReplyOverflowStrategy.PUSH)
+                                           .meterRegistry(meterRegistry)
+                                           .build();
+        StepVerifier.create(pushService.handleCallback(toCallbackRequest(event)))
+                    .expectComplete()
+                    .verify();
+
+        verify(lineClient).replyMessage(eq("replyToken"), captor.capture());
+        assertThat(captor.getValue()).containsExactly("1", "2", "3", "4", "5");
+        verify(lineClient).pushMessage(eq("userId"), captor.capture());
+        assertThat(captor.getValue()).containsExactly("6", "7");
+        assertThat(meterRegistry.get("youngbot.line.reply.overflows").tag("strategy", "push")
+                                .counter().count()).isOne();
+    }
+
+    @Test
+    void testHandleCallback_orderedBySource() throws Exception {
+        final var first = LineMessageEvent.of("user1", "slow", "replyToken1");
+        final var second = LineMessageEvent.of("user1", "fast", "replyToken2");
+        final var other = LineMessageEvent.of("user2", "fast", "replyToken3");
+        when(eventService.process(any())).thenAnswer(invocation -> {
+            final LineMessageEvent event = invocation.getArgument(0);
+            final Mono<EventResponse> response = Mono.just(EventResponse.of(event.text()));
+            return "slow".equals(event.text()) ? response.delayElement(Duration.ofMillis(100)).flux()
+                                               : response.flux();
+        });
+        when(lineClient.replyMessage(anyString(), any())).thenReturn(Mono.empty());
+
+        final var orderedService = LineService.builder(eventService, lineClient)
+                                              .orderedBySource(true)
+                                              .eventConcurrency(2)
+                                              .meterRegistry(meterRegistry)
+                                              .build();
+        StepVerifier.create(orderedService.handleCallback(toCallbackRequest(List.of(first, second, other))))
+                    .expectComplete()
+                    .verify();
+
+        // The events of user1 are handled in order while the event of user2 does not wait for them.
+        final InOrder inOrder = inOrder(lineClient);
+        inOrder.verify(lineClient).replyMessage(eq("replyToken3"), any());
+        inOrder.verify(lineClient).replyMessage(eq("replyToken1"), any());
+        inOrder.verify(lineClient).replyMessage(eq("replyToken2"), any());
+    }
 }
@@ -0,0 +1,125 @@
+package com.github.delegacy.youngbot.line;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.bot.model.Multicast;
+import com.linecorp.bot.model.PushMessage;
+import com.linecorp.bot.model.ReplyMessage;
+import com.linecorp.bot.model.message.TextMessage;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.test.StepVerifier;
+
+class ReactorNettyLineTransportTest {
+    private static final String OK = "{}";
+
+    private static final String ERROR = "{\"message\":\"The request body has 1 error(s)\"}";
+
+    private final Map<String, String> requests = new ConcurrentHashMap<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private DisposableServer server;
+
+    private ReactorNettyLineTransport transport;
+
+    @BeforeEach
+    void beforeEach() {
+        server = HttpServer.create()
+                           .host("127.0.0.1")
+                           .port(0)
+                           .doOnConnection(conn -> connections.incrementAndGet())
+                           .route(routes -> routes
+                                   .post("/v2/bot/message/reply", (req, res) -> respond(req, res, 200, OK))
+                                   .post("/v2/bot/message/multicast", (req, res) -> respond(req, res, 200, OK))
+                                   .post("/v2/bot/message/push", (req, res) -> respond(req, res, 400, ERROR))
+                                   .head("/", (req, res) -> res.status(404).send()))
+                           .bindNow();
+
+        transport = ReactorNettyLineTransport.builder("channelToken")
+                                             .apiBaseUrl("http://127.0.0.1:" + server.port())
+                                             .pool(4, 10)
+                                             .build();
+    }
+
+    @AfterEach
+    void afterEach() {
+        server.disposeNow();
+    }
+
+    private Mono<Void> respond(HttpServerRequest req, HttpServerResponse res, int status, String body) {
+        return req.receive()
+                  .aggregate()
+                  .asString()
+                  .doOnNext(json -> requests.put(req.uri(), req.requestHeaders().get("Authorization") +
+                                                            ' ' + json))
+                  .then(res.status(status)
+                           .header("Content-Type", "application/json")
+                           .header("X-Line-Request-Id", "requestId")
+                           .sendString(Mono.just(body))
+                           .then());
+    }
+
+    @Test
+    void testReplyMessage() {
+        StepVerifier.create(transport.replyMessage(new ReplyMessage("replyToken", new TextMessage("PONG"))))
+                    .assertNext(res -> assertThat(res.getRequestId()).isEqualTo("requestId"))
+                    .expectComplete()
+                    .verify();
+
+        assertThat(requests.get("/v2/bot/message/reply"))
+                .startsWith("Bearer channelToken ")
+                .contains("\"replyToken\":\"replyToken\"", "\"type\":\"text\"", "\"text\":\"PONG\"");
+    }
+
+    @Test
+    void testMulticast() {
+        StepVerifier.create(transport.multicast(new Multicast(Set.of("U1", "U2"),
+                                                              new TextMessage("hello"))))
+                    .expectNextCount(1)
+                    .expectComplete()
+                    .verify();
+
+        assertThat(requests.get("/v2/bot/message/multicast")).contains("\"to\":[", "\"U1\"", "\"U2\"");
+    }
+
+    @Test
+    void testPushMessage_error() {
+        StepVerifier.create(transport.pushMessage(new PushMessage("U1", List.of(new TextMessage("hello")))))
+                    .expectErrorSatisfies(t -> assertThat(t).isInstanceOf(LineException.class)
+                                                            .hasMessageContaining("status:400")
+                                                            .hasMessageContaining("1 error(s)"))
+                    .verify();
+    }
+
+    @Test
+    void testWarmUp() {
+        StepVerifier.create(transport.warmUp(3))
+                    .expectComplete()
+                    .verify();
+
+        assertThat(connections).hasValue(3);
+
+        // The warmed-up connections are reused.
+        StepVerifier.create(transport.replyMessage(new ReplyMessage("replyToken", new TextMessage("PONG"))))
+                    .expectNextCount(1)
+                    .expectComplete()
+                    .verify();
+
+        assertThat(connections).hasValue(3);
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.delegacy.youngbot.line;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Strings;
+
+class ReplyOverflowStrategyTest {
+    private static final List<String> TEXTS = List.of("1", "2", "3", "4", "5", "6", "7");
+
+    @Test
+    void testConcatenate() {
+        assertThat(ReplyOverflowStrategy.CONCATENATE.batch(TEXTS))
+                .containsExactly(List.of("1\n2\n3\n4\n5\n6\n7"));
+    }
+
+    @Test
+    void testConcatenate_withinTextLength() {
+        final String text = Strings.repeat("a", 2000);
+        final List<String> texts = Collections.nCopies(12, text);
+
+        final List<List<String>> batches = ReplyOverflowStrategy.CONCATENATE.batch(texts);
+
+        // Two texts fit in a message, so 12 texts become 6 messages of which the last one is pushed.
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).hasSize(5)
+                                  .allSatisfy(message -> assertThat(message).hasSize(4001));
+        assertThat(batches.get(1)).hasSize(1);
+    }
+
+    @Test
+    void testPush() {
+        assertThat(ReplyOverflowStrategy.PUSH.batch(TEXTS))
+                .containsExactly(List.of("1", "2", "3", "4", "5"), List.of("6", "7"));
+    }
+
+    @Test
+    void testTruncate() {
+        assertThat(ReplyOverflowStrategy.TRUNCATE.batch(TEXTS))
+                .containsExactly(List.of("1", "2", "3", "4", "5\n... (2 more)"));
+    }
+
+    @Test
+    void testTruncate_withinTextLength() {
+        final String text = Strings.repeat("a", 5000);
+        final List<String> texts = Collections.nCopies(6, text);
+
+        final List<String> truncated = ReplyOverflowStrategy.TRUNCATE.batch(texts).get(0);
+
+        assertThat(truncated.get(4)).hasSize(5000)
+                                    .endsWith("\n... (1 more)");
+    }
+}
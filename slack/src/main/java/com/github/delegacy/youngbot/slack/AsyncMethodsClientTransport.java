@@ -0,0 +1,86 @@
+package com.github.delegacy.youngbot.slack;
+
+import static java.util.Objects.requireNonNull;
+
+import com.slack.api.methods.AsyncMethodsClient;
+import com.slack.api.methods.request.chat.ChatDeleteRequest;
+import com.slack.api.methods.request.chat.ChatDeleteScheduledMessageRequest;
+import com.slack.api.methods.request.chat.ChatGetPermalinkRequest;
+import com.slack.api.methods.request.chat.ChatPostEphemeralRequest;
+import com.slack.api.methods.request.chat.ChatPostMessageRequest;
+import com.slack.api.methods.request.chat.ChatScheduleMessageRequest;
+import com.slack.api.methods.request.chat.ChatUpdateRequest;
+import com.slack.api.methods.request.conversations.ConversationsHistoryRequest;
+import com.slack.api.methods.request.conversations.ConversationsRepliesRequest;
+import com.slack.api.methods.response.chat.ChatDeleteResponse;
+import com.slack.api.methods.response.chat.ChatDeleteScheduledMessageResponse;
+import com.slack.api.methods.response.chat.ChatGetPermalinkResponse;
+import com.slack.api.methods.response.chat.ChatPostEphemeralResponse;
+import com.slack.api.methods.response.chat.ChatPostMessageResponse;
+import com.slack.api.methods.response.chat.ChatScheduleMessageResponse;
+import com.slack.api.methods.response.chat.ChatUpdateResponse;
+import com.slack.api.methods.response.conversations.ConversationsHistoryResponse;
+import com.slack.api.methods.response.conversations.ConversationsRepliesResponse;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A {@link SlackTransport} which delegates to Bolt's {@link AsyncMethodsClient}.
+ */
+final class AsyncMethodsClientTransport implements SlackTransport {
+    private final AsyncMethodsClient client;
+
+    AsyncMethodsClientTransport(AsyncMethodsClient client) {
+        this.client = requireNonNull(client, "client");
+    }
+
+    AsyncMethodsClient client() {
+        return client;
+    }
+
+    @Override
+    public Mono<ChatPostMessageResponse> chatPostMessage(ChatPostMessageRequest req) {
+        return Mono.fromFuture(() -> client.chatPostMessage(req));
+    }
+
+    @Override
+    public Mono<ChatPostEphemeralResponse> chatPostEphemeral(ChatPostEphemeralRequest req) {
+        return Mono.fromFuture(() -> client.chatPostEphemeral(req));
+    }
+
+    @Override
+    public Mono<ChatUpdateResponse> chatUpdate(ChatUpdateRequest req) {
+        return Mono.fromFuture(() -> client.chatUpdate(req));
+    }
+
+    @Override
+    public Mono<ChatDeleteResponse> chatDelete(ChatDeleteRequest req) {
+        return Mono.fromFuture(() -> client.chatDelete(req));
+    }
+
+    @Override
+    public Mono<ChatScheduleMessageResponse> chatScheduleMessage(ChatScheduleMessageRequest req) {
+        return Mono.fromFuture(() -> client.chatScheduleMessage(req));
+    }
+
+    @Override
+    public Mono<ChatDeleteScheduledMessageResponse> chatDeleteScheduledMessage(
+            ChatDeleteScheduledMessageRequest req) {
+        return Mono.fromFuture(() -> client.chatDeleteScheduledMessage(req));
+    }
+
+    @Override
+    public Mono<ChatGetPermalinkResponse> chatGetPermalink(ChatGetPermalinkRequest req) {
+        return Mono.fromFuture(() -> client.chatGetPermalink(req));
+    }
+
+    @Override
+    public Mono<ConversationsRepliesResponse> conversationsReplies(ConversationsRepliesRequest req) {
+        return Mono.fromFuture(() -> client.conversationsReplies(req));
+    }
+
+    @Override
+    public Mono<ConversationsHistoryResponse> conversationsHistory(ConversationsHistoryRequest req) {
+        return Mono.fromFuture(() -> client.conversationsHistory(req));
+    }
+}
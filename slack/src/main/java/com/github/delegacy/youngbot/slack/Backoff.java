@@ -0,0 +1,45 @@
+package com.github.delegacy.youngbot.slack;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Computes exponentially growing delays between connection attempts, randomized by up to
+ * {@code jitterRate} in both directions so that many clients do not retry in lockstep.
+ */
+final class Backoff {
+    private final long initialDelayMillis;
+
+    private final long maxDelayMillis;
+
+    private final double multiplier;
+
+    private final double jitterRate;
+
+    Backoff(Duration initialDelay, Duration maxDelay, double multiplier, double jitterRate) {
+        initialDelayMillis = requireNonNull(initialDelay, "initialDelay").toMillis();
+        maxDelayMillis = requireNonNull(maxDelay, "maxDelay").toMillis();
+        checkArgument(initialDelayMillis > 0, "initialDelay: %s (expected: > 0)", initialDelay);
+        checkArgument(maxDelayMillis >= initialDelayMillis,
+                      "maxDelay: %s (expected: >= initialDelay)", maxDelay);
+        checkArgument(multiplier >= 1, "multiplier: %s (expected: >= 1)", multiplier);
+        checkArgument(jitterRate >= 0 && jitterRate <= 1, "jitterRate: %s (expected: 0-1)", jitterRate);
+
+        this.multiplier = multiplier;
+        this.jitterRate = jitterRate;
+    }
+
+    /**
+     * Returns the delay before the {@code attempt}-th attempt, which starts from {@code 1}.
+     */
+    long delayMillis(int attempt) {
+        checkArgument(attempt > 0, "attempt: %s (expected: > 0)", attempt);
+
+        final double delay = Math.min(initialDelayMillis * Math.pow(multiplier, attempt - 1), maxDelayMillis);
+        final double jitter = delay * jitterRate * (ThreadLocalRandom.current().nextDouble() * 2 - 1);
+        return Math.max(1, Math.min(maxDelayMillis, Math.round(delay + jitter)));
+    }
+}
@@ -0,0 +1,217 @@
+package com.github.delegacy.youngbot.slack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.slack.api.methods.RequestFormBuilder;
+import com.slack.api.methods.SlackApiException;
+import com.slack.api.methods.SlackApiResponse;
+import com.slack.api.methods.request.chat.ChatDeleteRequest;
+import com.slack.api.methods.request.chat.ChatDeleteScheduledMessageRequest;
+import com.slack.api.methods.request.chat.ChatGetPermalinkRequest;
+import com.slack.api.methods.request.chat.ChatPostEphemeralRequest;
+import com.slack.api.methods.request.chat.ChatPostMessageRequest;
+import com.slack.api.methods.request.chat.ChatScheduleMessageRequest;
+import com.slack.api.methods.request.chat.ChatUpdateRequest;
+import com.slack.api.methods.request.conversations.ConversationsHistoryRequest;
+import com.slack.api.methods.request.conversations.ConversationsRepliesRequest;
+import com.slack.api.methods.response.chat.ChatDeleteResponse;
+import com.slack.api.methods.response.chat.ChatDeleteScheduledMessageResponse;
+import com.slack.api.methods.response.chat.ChatGetPermalinkResponse;
+import com.slack.api.methods.response.chat.ChatPostEphemeralResponse;
+import com.slack.api.methods.response.chat.ChatPostMessageResponse;
+import com.slack.api.methods.response.chat.ChatScheduleMessageResponse;
+import com.slack.api.methods.response.chat.ChatUpdateResponse;
+import com.slack.api.methods.response.conversations.ConversationsHistoryResponse;
+import com.slack.api.methods.response.conversations.ConversationsRepliesResponse;
+import com.slack.api.util.json.GsonFactory;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import okhttp3.FormBody;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.ByteBufMono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+/**
+ * A {@link SlackTransport} on Reactor Netty's {@link HttpClient}, which waits for the responses on the
+ * event loops instead of blocking a thread per call. The default {@link HttpClient} shares its event loops
+ * and connection pool with the other Reactor Netty clients and servers in the JVM such as WebFlux.
+ *
+ * <p>The requests are encoded by Bolt's {@link RequestFormBuilder} and the responses are decoded into
+ * Bolt's response types, so this is a drop-in replacement of {@link AsyncMethodsClientTransport}.
+ */
+public final class ReactorNettySlackTransport implements SlackTransport {
+    private static final Logger logger = LoggerFactory.getLogger(ReactorNettySlackTransport.class);
+
+    static final String DEFAULT_API_BASE_URL = "https://slack.com/api";
+
+    private static final Gson gson = GsonFactory.createSnakeCase();
+
+    private static String encode(FormBody.Builder form) {
+        final FormBody body = form.build();
+        final StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < body.size(); i++) {
+            if (i > 0) {
+                buf.append('&');
+            }
+            buf.append(body.encodedName(i)).append('=').append(body.encodedValue(i));
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Returns the {@link SlackApiException} Bolt's client raises for the same response, so that the callers
+     * can read {@code Retry-After} from {@link SlackApiException#getResponse()} with either transport.
+     */
+    private static SlackApiException rateLimited(String url, HttpClientResponse res, String body) {
+        final Response.Builder builder = new Response.Builder().request(new Request.Builder().url(url).build())
+                                                               .protocol(Protocol.HTTP_1_1)
+                                                               .code(res.status().code())
+                                                               .message(res.status().reasonPhrase());
+        final String retryAfter = res.responseHeaders().get(HttpHeaderNames.RETRY_AFTER);
+        if (retryAfter != null) {
+            builder.header(HttpHeaderNames.RETRY_AFTER.toString(), retryAfter);
+        }
+        return new SlackApiException(builder.build(), body);
+    }
+
+    private final HttpClient httpClient;
+
+    private final String apiBaseUrl;
+
+    /**
+     * Creates a new instance which calls {@code https://slack.com/api} with the default {@link HttpClient}.
+     */
+    public ReactorNettySlackTransport(String botToken) {
+        this(HttpClient.create(), DEFAULT_API_BASE_URL, botToken);
+    }
+
+    /**
+     * Creates a new instance which calls the API at {@code apiBaseUrl} with the specified {@link HttpClient},
+     * which may have its own connection pool or event loops.
+     */
+    public ReactorNettySlackTransport(HttpClient httpClient, String apiBaseUrl, String botToken) {
+        requireNonNull(httpClient, "httpClient");
+        requireNonNull(apiBaseUrl, "apiBaseUrl");
+        requireNonNull(botToken, "botToken");
+        this.apiBaseUrl = apiBaseUrl;
+        this.httpClient = httpClient.baseUrl(apiBaseUrl)
+                                    .headers(headers -> {
+                                        headers.set(HttpHeaderNames.AUTHORIZATION, "Bearer " + botToken);
+                                        headers.set(HttpHeaderNames.CONTENT_TYPE,
+                                                    HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED);
+                                    });
+    }
+
+    /**
+     * Opens up to {@code connections} connections to the API so that the first calls do not pay for
+     * the DNS lookup and the TCP and TLS handshakes. Failures are logged and ignored.
+     */
+    public Mono<Void> warmUp(int connections) {
+        return Flux.range(0, connections)
+                   .flatMap(i -> httpClient.head()
+                                           .uri("/")
+                                           .responseSingle((res, body) -> body.then())
+                                           .onErrorResume(t -> {
+                                               logger.warn("Failed to warm up a connection to Slack", t);
+                                               return Mono.empty();
+                                           }), Math.max(connections, 1))
+                   .then();
+    }
+
+    @Override
+    public Mono<ChatPostMessageResponse> chatPostMessage(ChatPostMessageRequest req) {
+        return call("chat.postMessage", RequestFormBuilder.toForm(req), ChatPostMessageResponse.class);
+    }
+
+    @Override
+    public Mono<ChatPostEphemeralResponse> chatPostEphemeral(ChatPostEphemeralRequest req) {
+        return call("chat.postEphemeral", RequestFormBuilder.toForm(req), ChatPostEphemeralResponse.class);
+    }
+
+    @Override
+    public Mono<ChatUpdateResponse> chatUpdate(ChatUpdateRequest req) {
+        return call("chat.update", RequestFormBuilder.toForm(req), ChatUpdateResponse.class);
+    }
+
+    @Override
+    public Mono<ChatDeleteResponse> chatDelete(ChatDeleteRequest req) {
+        return call("chat.delete", RequestFormBuilder.toForm(req), ChatDeleteResponse.class);
+    }
+
+    @Override
+    public Mono<ChatScheduleMessageResponse> chatScheduleMessage(ChatScheduleMessageRequest req) {
+        return call("chat.scheduleMessage", RequestFormBuilder.toForm(req), ChatScheduleMessageResponse.class);
+    }
+
+    @Override
+    public Mono<ChatDeleteScheduledMessageResponse> chatDeleteScheduledMessage(
+            ChatDeleteScheduledMessageRequest req) {
+        return call("chat.deleteScheduledMessage", RequestFormBuilder.toForm(req),
+                    ChatDeleteScheduledMessageResponse.class);
+    }
+
+    @Override
+    public Mono<ChatGetPermalinkResponse> chatGetPermalink(ChatGetPermalinkRequest req) {
+        return call("chat.getPermalink", RequestFormBuilder.toForm(req), ChatGetPermalinkResponse.class);
+    }
+
+    @Override
+    public Mono<ConversationsRepliesResponse> conversationsReplies(ConversationsRepliesRequest req) {
+        return call("conversations.replies", RequestFormBuilder.toForm(req),
+                    ConversationsRepliesResponse.class);
+    }
+
+    @Override
+    public Mono<ConversationsHistoryResponse> conversationsHistory(ConversationsHistoryRequest req) {
+        return call("conversations.history", RequestFormBuilder.toForm(req),
+                    ConversationsHistoryResponse.class);
+    }
+
+    private <T extends SlackApiResponse> Mono<T> call(String method, FormBody.Builder form, Class<T> type) {
+        return Mono.fromSupplier(() -> encode(form))
+                   .flatMap(body -> httpClient.post()
+                                              .uri('/' + method)
+                                              .send(ByteBufFlux.fromString(Mono.just(body)))
+                                              .responseSingle((res, content) -> receive(method, res, content)))
+                   .map(json -> {
+                       try {
+                           final T res = gson.fromJson(json, type);
+                           if (res == null) {
+                               throw new SlackException("Failed to call " + method + ";empty response");
+                           }
+                           return res;
+                       } catch (JsonParseException e) {
+                           throw new SlackException("Failed to parse the response of " + method, e);
+                       }
+                   });
+    }
+
+    private Mono<String> receive(String method, HttpClientResponse res, ByteBufMono content) {
+        if (HttpResponseStatus.TOO_MANY_REQUESTS.equals(res.status())) {
+            return content.asString(StandardCharsets.UTF_8)
+                          .defaultIfEmpty("")
+                          .flatMap(json -> Mono.error(rateLimited(apiBaseUrl + '/' + method, res, json)));
+        }
+        if (!HttpResponseStatus.OK.equals(res.status())) {
+            return Mono.error(
+                    new SlackException("Failed to call " + method + ";status:" + res.status().code()));
+        }
+        return content.asString(StandardCharsets.UTF_8)
+                      .switchIfEmpty(Mono.just(""));
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.delegacy.youngbot.slack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalesces concurrent loads of the same key into a single in-flight {@link Mono} and optionally keeps
+ * the loaded values in a size-bounded cache for a fixed amount of time.
+ */
+final class RequestCache<K, V> {
+    @Nullable
+    private final Cache<K, V> cache;
+
+    @Nullable
+    private final Map<K, Mono<V>> inFlight;
+
+    private final Counter coalesced;
+
+    RequestCache(String name, boolean coalescing, long maximumSize, Duration ttl,
+                 MeterRegistry meterRegistry) {
+        requireNonNull(name, "name");
+        requireNonNull(ttl, "ttl");
+        requireNonNull(meterRegistry, "meterRegistry");
+
+        if (maximumSize > 0 && !ttl.isZero() && !ttl.isNegative()) {
+            cache = GuavaCacheMetrics.monitor(meterRegistry,
+                                              CacheBuilder.newBuilder()
+                                                          .maximumSize(maximumSize)
+                                                          .expireAfterWrite(ttl)
+                                                          .recordStats()
+                                                          .<K, V>build(),
+                                              name);
+        } else {
+            cache = null;
+        }
+
+        inFlight = coalescing ? new ConcurrentHashMap<>() : null;
+
+        coalesced = Counter.builder("youngbot.slack.client.coalesced")
+                           .tag("cache", name)
+                           .register(meterRegistry);
+    }
+
+    Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            if (cache != null) {
+                final V cached = cache.getIfPresent(key);
+                if (cached != null) {
+                    return Mono.just(cached);
+                }
+            }
+
+            if (inFlight == null) {
+                return load(key, loader);
+            }
+
+            final Mono<V> existing = inFlight.get(key);
+            if (existing != null) {
+                coalesced.increment();
+                return existing;
+            }
+
+            // The entry is removed when the shared load terminates, but only if it is still this load, so
+            // that a late removal never drops a newer load of the same key.
+            final AtomicReference<Mono<V>> self = new AtomicReference<>();
+            final Mono<V> candidate = load(key, loader).doFinally(signal -> inFlight.remove(key, self.get()))
+                                                       .cache();
+            self.set(candidate);
+            final Mono<V> winner = inFlight.putIfAbsent(key, candidate);
+            if (winner != null) {
+                coalesced.increment();
+                return winner;
+            }
+            return candidate;
+        });
+    }
+
+    private Mono<V> load(K key, Function<K, Mono<V>> loader) {
+        final Mono<V> mono = loader.apply(key);
+        if (cache == null) {
+            return mono;
+        }
+        return mono.doOnNext(value -> cache.put(key, value));
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.delegacy.youngbot.slack;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.charset.StandardCharsets;
+
+import com.google.gson.Gson;
+import com.slack.api.app_backend.slash_commands.response.SlashCommandResponse;
+import com.slack.api.util.json.GsonFactory;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Sends the responses to slash commands to their {@code response_url}s. No more than {@code maxConnections}
+ * responses are sent at the same time, and the others wait for a connection.
+ */
+final class ResponseUrlSender {
+    private static final Gson gson = GsonFactory.createSnakeCase();
+
+    static SlashCommandResponse toResponse(SlackEventResponse res) {
+        return SlashCommandResponse.builder()
+                                   .text(res.text())
+                                   .responseType(res.ephemeral() ? "ephemeral" : "in_channel")
+                                   .build();
+    }
+
+    static String toJson(SlashCommandResponse res) {
+        return gson.toJson(res);
+    }
+
+    private final HttpClient httpClient;
+
+    ResponseUrlSender(int maxConnections) {
+        checkArgument(maxConnections > 0, "maxConnections: %s (expected: > 0)", maxConnections);
+        // The pending acquisitions are not limited since every response is supposed to be sent eventually.
+        httpClient = HttpClient.create(ConnectionProvider.builder("youngbot-slack-response-url")
+                                                         .maxConnections(maxConnections)
+                                                         .pendingAcquireMaxCount(-1)
+                                                         .build())
+                               .headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE,
+                                                               HttpHeaderValues.APPLICATION_JSON));
+    }
+
+    Mono<Void> send(String responseUrl, SlackEventResponse res) {
+        final byte[] body = toJson(toResponse(res)).getBytes(StandardCharsets.UTF_8);
+        return httpClient.post()
+                         .uri(responseUrl)
+                         .send(ByteBufFlux.fromInbound(Mono.just(body)))
+                         .responseSingle((response, content) -> {
+                             if (!response.status().equals(HttpResponseStatus.OK)) {
+                                 return Mono.error(new SlackException(
+                                         "Failed to send a response to response_url;status:" +
+                                         response.status().code()));
+                             }
+                             return content.then();
+                         });
+    }
+}
@@ -1,16 +1,23 @@
 package com.github.delegacy.youngbot.slack;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.delegacy.youngbot.Consumers;
+import com.google.common.annotations.VisibleForTesting;
 import com.slack.api.app_backend.events.payload.EventsApiPayload;
 import com.slack.api.bolt.App;
 import com.slack.api.bolt.context.builtin.EventContext;
+import com.slack.api.bolt.context.builtin.SlashCommandContext;
 import com.slack.api.bolt.handler.BoltEventHandler;
+import com.slack.api.bolt.handler.builtin.SlashCommandHandler;
 import com.slack.api.bolt.request.Request;
+import com.slack.api.bolt.request.builtin.SlashCommandRequest;
 import com.slack.api.bolt.response.Response;
 import com.slack.api.methods.SlackApiException;
 import com.slack.api.model.event.MessageEvent;
@@ -21,10 +28,30 @@ import com.slack.api.model.event.ReactionAddedEvent;
  *
  * @see <a href="https://api.slack.com/events/message">message event</a>
  * @see <a href="https://api.slack.com/methods/chat.postMessage">chat.postMessage method</a>
+ * @see <a href="https://api.slack.com/interactivity/slash-commands">Slash commands</a>
  */
 class SlackAppBlockingService {
     private static final Logger logger = LoggerFactory.getLogger(SlackAppBlockingService.class);
 
+    private static final Pattern ANY_COMMAND = Pattern.compile("^/.+$");
+
+    /**
+     * Acknowledges a slash command with the responses. Slack accepts a single message in an acknowledgement,
+     * so the texts are joined into one, which is visible to everyone in the channel unless all the
+     * responses are ephemeral.
+     */
+    @VisibleForTesting
+    static Response toAck(List<SlackEventResponse> responses) {
+        final boolean ephemeral = responses.stream().allMatch(SlackEventResponse::ephemeral);
+        final String text = responses.stream()
+                                     .map(SlackEventResponse::text)
+                                     .collect(Collectors.joining("\n"));
+        final SlackEventResponse joined = SlackEventResponse.builder(text)
+                                                            .ephemeral(ephemeral)
+                                                            .build();
+        return Response.json(200, ResponseUrlSender.toJson(ResponseUrlSender.toResponse(joined)));
+    }
+
     private final App app;
 
     private final SlackService slackService;
@@ -40,6 +67,7 @@ class SlackAppBlockingService {
     void init() {
         app.event(MessageEvent.class, new MessageEventHandler());
         app.event(ReactionAddedEvent.class, new ReactionAddedEventHandler());
+        app.command(ANY_COMMAND, new CommandHandler());
     }
 
     Response run(Request<?> request) throws Exception {
@@ -76,4 +104,26 @@ class SlackAppBlockingService {
             return ctx.ack();
         }
     }
+
+    class CommandHandler implements SlashCommandHandler {
+        @Override
+        public Response apply(SlashCommandRequest request, SlashCommandContext ctx) {
+            final SlackCommandEvent event = SlackCommandEvent.of(request.getPayload());
+            logger.debug("Received command<{}> from channel<{}>", event.text(), event.channel());
+
+            // This runs on a blocking thread, see SlackAppService.run(Request).
+            final List<SlackEventResponse> responses;
+            try {
+                responses = slackService.processCommand(event).block();
+            } catch (RuntimeException e) {
+                logger.error("Failed to process event<{}>", event, e);
+                return ctx.ack();
+            }
+
+            if (responses == null || responses.isEmpty()) {
+                return ctx.ack();
+            }
+            return toAck(responses);
+        }
+    }
 }
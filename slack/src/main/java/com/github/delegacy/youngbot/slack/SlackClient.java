@@ -2,24 +2,33 @@ package com.github.delegacy.youngbot.slack;
 
 import static java.util.Objects.requireNonNull;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.function.Function;
 
 import javax.annotation.Nullable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Strings;
 import com.slack.api.methods.AsyncMethodsClient;
+import com.slack.api.methods.request.chat.ChatDeleteRequest;
 import com.slack.api.methods.request.chat.ChatDeleteScheduledMessageRequest;
 import com.slack.api.methods.request.chat.ChatGetPermalinkRequest;
 import com.slack.api.methods.request.chat.ChatPostEphemeralRequest;
 import com.slack.api.methods.request.chat.ChatPostMessageRequest;
 import com.slack.api.methods.request.chat.ChatScheduleMessageRequest;
+import com.slack.api.methods.request.chat.ChatUpdateRequest;
+import com.slack.api.methods.request.conversations.ConversationsHistoryRequest;
 import com.slack.api.methods.request.conversations.ConversationsRepliesRequest;
 import com.slack.api.model.Message;
+import com.slack.api.model.ResponseMetadata;
 
+import io.micrometer.core.instrument.Metrics;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -28,20 +37,75 @@ import reactor.core.publisher.Mono;
 public class SlackClient {
     private static final Logger logger = LoggerFactory.getLogger(SlackClient.class);
 
-    private final AsyncMethodsClient client;
+    private static final int PAGE_SIZE = 200;
+
+    private static String cacheKey(String channel, String ts) {
+        return channel + '/' + ts;
+    }
 
     /**
      * TBW.
      */
-    public SlackClient(AsyncMethodsClient client) {
-        this.client = requireNonNull(client, "client");
+    public static SlackClientBuilder builder(AsyncMethodsClient client) {
+        return builder(new AsyncMethodsClientTransport(client));
+    }
+
+    /**
+     * Returns a new builder of a {@link SlackClient} which calls the Slack API through the specified
+     * {@link SlackTransport}, such as {@link ReactorNettySlackTransport}.
+     */
+    public static SlackClientBuilder builder(SlackTransport transport) {
+        return new SlackClientBuilder(requireNonNull(transport, "transport"));
     }
 
+    private final SlackTransport transport;
+
+    private final RequestCache<String, String> permalinkCache;
+
+    private final RequestCache<String, List<Message>> threadCache;
+
+    @Nullable
+    private final SlackThreadStore threadStore;
+
+    private final SlackClientMetrics metrics;
+
     /**
      * TBW.
      */
+    public SlackClient(AsyncMethodsClient client) {
+        this(new AsyncMethodsClientTransport(client),
+             new RequestCache<>("youngbot.slack.permalink", true, 0, Duration.ZERO, Metrics.globalRegistry),
+             new RequestCache<>("youngbot.slack.thread", true, 0, Duration.ZERO, Metrics.globalRegistry),
+             null, new SlackClientMetrics(Metrics.globalRegistry));
+    }
+
+    SlackClient(SlackTransport transport, RequestCache<String, String> permalinkCache,
+                RequestCache<String, List<Message>> threadCache, @Nullable SlackThreadStore threadStore,
+                SlackClientMetrics metrics) {
+        this.transport = transport;
+        this.permalinkCache = permalinkCache;
+        this.threadCache = threadCache;
+        this.threadStore = threadStore;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the {@link AsyncMethodsClient} this client was built with.
+     *
+     * @throws IllegalStateException if this client was built with another {@link SlackTransport}
+     */
     public AsyncMethodsClient rawClient() {
-        return client;
+        if (!(transport instanceof AsyncMethodsClientTransport)) {
+            throw new IllegalStateException("Not built with an AsyncMethodsClient: " + transport);
+        }
+        return ((AsyncMethodsClientTransport) transport).client();
+    }
+
+    /**
+     * TBW.
+     */
+    public SlackTransport transport() {
+        return transport;
     }
 
     /**
@@ -60,7 +124,7 @@ public class SlackClient {
                                                .text(requireNonNull(message, "message"))
                                                .threadTs(threadTs)
                                                .build())
-                   .flatMap(req -> Mono.fromFuture(client.chatPostMessage(req)))
+                   .flatMap(req -> metrics.record("chat.postMessage", transport.chatPostMessage(req)))
                    .flatMap(res -> {
                        if (!res.isOk()) {
                            logger.error("Failed to send message<{}> to channel<{}>;error<{}>",
@@ -76,6 +140,10 @@ public class SlackClient {
                                        message, channel, res.getWarning());
                        }
 
+                       if (threadStore != null && res.getMessage() != null) {
+                           threadStore.add(channel, res.getMessage());
+                       }
+
                        return Mono.just(res.getMessage());
                    });
     }
@@ -98,7 +166,7 @@ public class SlackClient {
                                                  .threadTs(threadTs)
                                                  .attachments(List.of())
                                                  .build())
-                   .flatMap(req -> Mono.fromFuture(client.chatPostEphemeral(req)))
+                   .flatMap(req -> metrics.record("chat.postEphemeral", transport.chatPostEphemeral(req)))
                    .flatMap(res -> {
                        if (!res.isOk()) {
                            logger.error(
@@ -121,6 +189,56 @@ public class SlackClient {
                    });
     }
 
+    /**
+     * Replaces the text of the message posted at {@code ts} in the channel.
+     */
+    public Mono<Void> updateMessage(String channel, String ts, String message) {
+        return Mono.just(ChatUpdateRequest.builder()
+                                          .channel(requireNonNull(channel, "channel"))
+                                          .ts(requireNonNull(ts, "ts"))
+                                          .text(requireNonNull(message, "message"))
+                                          .build())
+                   .flatMap(req -> metrics.record("chat.update", transport.chatUpdate(req)))
+                   .map(res -> {
+                       if (!res.isOk()) {
+                           logger.error("Failed to update message<{}> to <{}> in channel<{}>;error<{}>",
+                                        ts, message, channel, res.getError());
+                           throw new SlackException("Failed to update message;error:" + res.getError());
+                       }
+
+                       if (res.getWarning() == null) {
+                           logger.debug("Updated message<{}> to <{}> in channel<{}>", ts, message, channel);
+                       } else {
+                           logger.warn("Updated message<{}> to <{}> in channel<{}>;warn<{}>",
+                                       ts, message, channel, res.getWarning());
+                       }
+                       return res;
+                   })
+                   .then();
+    }
+
+    /**
+     * Deletes the message posted at {@code ts} in the channel.
+     */
+    public Mono<Void> deleteMessage(String channel, String ts) {
+        return Mono.just(ChatDeleteRequest.builder()
+                                          .channel(requireNonNull(channel, "channel"))
+                                          .ts(requireNonNull(ts, "ts"))
+                                          .build())
+                   .flatMap(req -> metrics.record("chat.delete", transport.chatDelete(req)))
+                   .map(res -> {
+                       if (!res.isOk()) {
+                           logger.error("Failed to delete message<{}> in channel<{}>;error<{}>",
+                                        ts, channel, res.getError());
+                           throw new SlackException("Failed to delete message;error:" + res.getError());
+                       }
+
+                       logger.debug("Deleted message<{}> in channel<{}>", ts, channel);
+                       return res;
+                   })
+                   .then();
+    }
+
     /**
      * TBW.
      */
@@ -140,7 +258,7 @@ public class SlackClient {
                                                            .atZone(ZoneId.systemDefault()).toEpochSecond())
                                                    .threadTs(threadTs)
                                                    .build())
-                   .flatMap(req -> Mono.fromFuture(client.chatScheduleMessage(req)))
+                   .flatMap(req -> metrics.record("chat.scheduleMessage", transport.chatScheduleMessage(req)))
                    .flatMap(res -> {
                        if (!res.isOk()) {
                            logger.error("Failed to schedule message<{}> to channel<{}> at <{}>;error<{}>",
@@ -170,7 +288,8 @@ public class SlackClient {
                                  .channel(requireNonNull(channel, "channel"))
                                  .scheduledMessageId(requireNonNull(scheduledMessageId, "scheduledMessageId"))
                                  .build())
-                   .flatMap(req -> Mono.fromFuture(client.chatDeleteScheduledMessage(req)))
+                   .flatMap(req -> metrics.record("chat.deleteScheduledMessage",
+                                                  transport.chatDeleteScheduledMessage(req)))
                    .map(res -> {
                        if (!res.isOk()) {
                            logger.error(
@@ -191,11 +310,18 @@ public class SlackClient {
      * TBW.
      */
     public Mono<String> getPermalink(String channel, String messageTs) {
+        requireNonNull(channel, "channel");
+        requireNonNull(messageTs, "messageTs");
+
+        return permalinkCache.get(cacheKey(channel, messageTs), key -> getPermalink0(channel, messageTs));
+    }
+
+    private Mono<String> getPermalink0(String channel, String messageTs) {
         return Mono.just(ChatGetPermalinkRequest.builder()
                                                 .channel(requireNonNull(channel, "channel"))
                                                 .messageTs(requireNonNull(messageTs, "messageTs"))
                                                 .build())
-                   .flatMap(req -> Mono.fromFuture(client.chatGetPermalink(req)))
+                   .flatMap(req -> metrics.record("chat.getPermalink", transport.chatGetPermalink(req)))
                    .flatMap(res -> {
                        if (!res.isOk()) {
                            logger.error(
@@ -213,11 +339,76 @@ public class SlackClient {
      * TBW.
      */
     public Mono<List<Message>> getThreadOfMessages(String channel, String ts) {
+        requireNonNull(channel, "channel");
+        requireNonNull(ts, "ts");
+
+        if (threadStore == null) {
+            return threadCache.get(cacheKey(channel, ts), key -> getThreadOfMessages0(channel, ts));
+        }
+
+        return Mono.defer(() -> {
+            final List<Message> stored = threadStore.get(channel, ts);
+            if (stored != null) {
+                return Mono.just(stored);
+            }
+
+            return threadCache.get(cacheKey(channel, ts),
+                                   key -> getThreadOfMessages0(channel, ts)
+                                           .doOnNext(messages -> threadStore.put(channel, ts, messages)));
+        });
+    }
+
+    /**
+     * Keeps the {@link SlackThreadStore} up to date with the message received from Slack, if any.
+     */
+    void recordMessage(SlackMessageEvent event) {
+        if (threadStore != null) {
+            threadStore.add(event);
+        }
+    }
+
+    private Mono<List<Message>> getThreadOfMessages0(String channel, String ts) {
+        return getRepliesPage(channel, ts, "", null).map(page -> page.messages);
+    }
+
+    /**
+     * Returns all messages of the thread, following {@code next_cursor} of {@code conversations.replies}.
+     * The next page is fetched only when the messages of the previous pages have been requested by
+     * the downstream, so at most one page is buffered.
+     */
+    public Flux<Message> streamThreadOfMessages(String channel, String ts) {
+        requireNonNull(channel, "channel");
+        requireNonNull(ts, "ts");
+
+        return paginate(cursor -> getRepliesPage(channel, ts, cursor, PAGE_SIZE));
+    }
+
+    /**
+     * Returns the messages of the channel from the newest, following {@code next_cursor} of
+     * {@code conversations.history}. The next page is fetched only when the messages of the previous
+     * pages have been requested by the downstream, so at most one page is buffered.
+     */
+    public Flux<Message> streamHistory(String channel) {
+        requireNonNull(channel, "channel");
+
+        return paginate(cursor -> getHistoryPage(channel, cursor));
+    }
+
+    private static Flux<Message> paginate(Function<String, Mono<Page>> pageFetcher) {
+        return pageFetcher.apply("")
+                          .expand(page -> page.nextCursor.isEmpty() ? Mono.empty()
+                                                                    : pageFetcher.apply(page.nextCursor))
+                          .concatMapIterable(page -> page.messages, 1);
+    }
+
+    private Mono<Page> getRepliesPage(String channel, String ts, String cursor, @Nullable Integer limit) {
         return Mono.just(ConversationsRepliesRequest.builder()
                                                     .channel(requireNonNull(channel, "channel"))
                                                     .ts(requireNonNull(ts, "ts"))
+                                                    .cursor(cursor.isEmpty() ? null : cursor)
+                                                    .limit(limit)
                                                     .build())
-                   .flatMap(req -> Mono.fromFuture(client.conversationsReplies(req)))
+                   .flatMap(req -> metrics.record("conversations.replies", transport.conversationsReplies(req)))
                    .flatMap(res -> {
                        if (!res.isOk()) {
                            logger.error(
@@ -228,7 +419,37 @@ public class SlackClient {
                                            "Failed to get a thread of messages;error:" + res.getError()));
                        }
 
-                       return Mono.just(res.getMessages());
+                       return Mono.just(new Page(res.getMessages(), res.getResponseMetadata()));
+                   });
+    }
+
+    private Mono<Page> getHistoryPage(String channel, String cursor) {
+        return Mono.just(ConversationsHistoryRequest.builder()
+                                                    .channel(channel)
+                                                    .cursor(cursor.isEmpty() ? null : cursor)
+                                                    .limit(PAGE_SIZE)
+                                                    .build())
+                   .flatMap(req -> metrics.record("conversations.history", transport.conversationsHistory(req)))
+                   .flatMap(res -> {
+                       if (!res.isOk()) {
+                           logger.error("Failed to get the history of channel<{}>;error<{}>",
+                                        channel, res.getError());
+                           return Mono.error(
+                                   new SlackException("Failed to get the history;error:" + res.getError()));
+                       }
+
+                       return Mono.just(new Page(res.getMessages(), res.getResponseMetadata()));
                    });
     }
+
+    private static final class Page {
+        private final List<Message> messages;
+
+        private final String nextCursor;
+
+        Page(@Nullable List<Message> messages, @Nullable ResponseMetadata metadata) {
+            this.messages = messages != null ? messages : List.of();
+            this.nextCursor = metadata != null ? Strings.nullToEmpty(metadata.getNextCursor()) : "";
+        }
+    }
 }
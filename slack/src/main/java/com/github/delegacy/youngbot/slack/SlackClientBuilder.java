@@ -0,0 +1,100 @@
+package com.github.delegacy.youngbot.slack;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+import javax.annotation.Nullable;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * TBW.
+ */
+public final class SlackClientBuilder {
+    private final SlackTransport transport;
+
+    private boolean coalesceRequests = true;
+
+    private long permalinkCacheMaximumSize;
+
+    private Duration permalinkCacheTtl = Duration.ZERO;
+
+    private long threadCacheMaximumSize;
+
+    private Duration threadCacheTtl = Duration.ZERO;
+
+    @Nullable
+    private SlackThreadStore threadStore;
+
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    /**
+     * TBW.
+     */
+    SlackClientBuilder(SlackTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Sets whether concurrent identical read requests share a single in-flight call.
+     */
+    public SlackClientBuilder coalesceRequests(boolean coalesceRequests) {
+        this.coalesceRequests = coalesceRequests;
+        return this;
+    }
+
+    /**
+     * Caches up to {@code maximumSize} permalinks for {@code ttl}. A zero size or TTL disables the cache.
+     */
+    public SlackClientBuilder permalinkCache(long maximumSize, Duration ttl) {
+        checkArgument(maximumSize >= 0, "maximumSize: %s (expected: >= 0)", maximumSize);
+        permalinkCacheMaximumSize = maximumSize;
+        permalinkCacheTtl = requireNonNull(ttl, "ttl");
+        return this;
+    }
+
+    /**
+     * Caches up to {@code maximumSize} threads for {@code ttl}. A zero size or TTL disables the cache.
+     */
+    public SlackClientBuilder threadCache(long maximumSize, Duration ttl) {
+        checkArgument(maximumSize >= 0, "maximumSize: %s (expected: >= 0)", maximumSize);
+        threadCacheMaximumSize = maximumSize;
+        threadCacheTtl = requireNonNull(ttl, "ttl");
+        return this;
+    }
+
+    /**
+     * Serves {@link SlackClient#getThreadOfMessages(String, String)} from the specified
+     * {@link SlackThreadStore} when possible, falling back to the API only on a miss.
+     */
+    public SlackClientBuilder threadStore(SlackThreadStore threadStore) {
+        this.threadStore = requireNonNull(threadStore, "threadStore");
+        return this;
+    }
+
+    /**
+     * Sets the {@link MeterRegistry} the caches and the latency and the errors of each API method are
+     * recorded to.
+     */
+    public SlackClientBuilder meterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+        return this;
+    }
+
+    /**
+     * TBW.
+     */
+    public SlackClient build() {
+        return new SlackClient(transport,
+                               new RequestCache<>("youngbot.slack.permalink", coalesceRequests,
+                                                  permalinkCacheMaximumSize, permalinkCacheTtl,
+                                                  meterRegistry),
+                               new RequestCache<>("youngbot.slack.thread", coalesceRequests,
+                                                  threadCacheMaximumSize, threadCacheTtl,
+                                                  meterRegistry),
+                               threadStore, new SlackClientMetrics(meterRegistry));
+    }
+}
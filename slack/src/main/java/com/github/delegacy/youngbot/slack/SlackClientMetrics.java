@@ -0,0 +1,54 @@
+package com.github.delegacy.youngbot.slack;
+
+import static com.google.common.base.MoreObjects.firstNonNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.slack.api.methods.SlackApiResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records the latency and the errors of the Slack Web API calls made by {@link SlackClient}, tagged with the
+ * API method. A response which is not {@code ok} is counted as an error as well as a transport failure.
+ */
+final class SlackClientMetrics {
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    SlackClientMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    <T extends SlackApiResponse> Mono<T> record(String method, Mono<T> call) {
+        return Mono.defer(() -> {
+            final Timer.Sample sample = Timer.start(meterRegistry);
+            return call.doOnNext(res -> {
+                           if (!res.isOk()) {
+                               error(method, firstNonNull(res.getError(), "unknown"));
+                           }
+                       })
+                       .doOnError(t -> error(method, t.getClass().getSimpleName()))
+                       .doFinally(signal -> sample.stop(timer(method)));
+        });
+    }
+
+    private Timer timer(String method) {
+        return timers.computeIfAbsent(method, key -> Timer.builder("youngbot.slack.client.requests")
+                                                          .tag("method", key)
+                                                          .register(meterRegistry));
+    }
+
+    private void error(String method, String error) {
+        Counter.builder("youngbot.slack.client.errors")
+               .tag("method", method)
+               .tag("error", error)
+               .register(meterRegistry)
+               .increment();
+    }
+}
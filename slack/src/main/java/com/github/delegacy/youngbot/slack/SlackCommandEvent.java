@@ -0,0 +1,108 @@
+package com.github.delegacy.youngbot.slack;
+
+import static com.google.common.base.Strings.nullToEmpty;
+import static java.util.Objects.requireNonNull;
+
+import com.github.delegacy.youngbot.event.message.MessageEvent;
+import com.google.common.base.MoreObjects;
+import com.slack.api.app_backend.slash_commands.payload.SlashCommandPayload;
+
+/**
+ * A slash command such as {@code /ping}. Its {@link #text()} is the command followed by its arguments, so
+ * that the processors of the messages handle the commands as well.
+ *
+ * @see <a href="https://api.slack.com/interactivity/slash-commands">Slash commands</a>
+ */
+public final class SlackCommandEvent implements MessageEvent,
+                                                SlackEvent {
+    /**
+     * TBW.
+     */
+    public static SlackCommandEvent of(SlashCommandPayload payload) {
+        requireNonNull(payload, "payload");
+
+        return of(payload.getCommand(), nullToEmpty(payload.getText()), payload.getChannelId(),
+                  payload.getUserId(), payload.getResponseUrl());
+    }
+
+    /**
+     * TBW.
+     */
+    public static SlackCommandEvent of(String command, String arguments, String channel, String user,
+                                       String responseUrl) {
+        return new SlackCommandEvent(requireNonNull(command, "command"),
+                                     requireNonNull(arguments, "arguments"),
+                                     requireNonNull(channel, "channel"),
+                                     requireNonNull(user, "user"),
+                                     requireNonNull(responseUrl, "responseUrl"));
+    }
+
+    private final String command;
+
+    private final String arguments;
+
+    private final String channel;
+
+    private final String user;
+
+    private final String responseUrl;
+
+    private SlackCommandEvent(String command, String arguments, String channel, String user,
+                              String responseUrl) {
+        this.command = command;
+        this.arguments = arguments;
+        this.channel = channel;
+        this.user = user;
+        this.responseUrl = responseUrl;
+    }
+
+    /**
+     * Returns the command with the leading slash, such as {@code /ping}.
+     */
+    public String command() {
+        return command;
+    }
+
+    /**
+     * Returns the text after the command, which may be empty.
+     */
+    public String arguments() {
+        return arguments;
+    }
+
+    @Override
+    public String text() {
+        return arguments.isEmpty() ? command : command + ' ' + arguments;
+    }
+
+    /**
+     * TBW.
+     */
+    public String channel() {
+        return channel;
+    }
+
+    /**
+     * TBW.
+     */
+    public String user() {
+        return user;
+    }
+
+    /**
+     * Returns the URL the responses can be sent to for 30 minutes after the command was invoked.
+     */
+    public String responseUrl() {
+        return responseUrl;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("command", command)
+                          .add("arguments", arguments)
+                          .add("channel", channel)
+                          .add("user", user)
+                          .toString();
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.delegacy.youngbot.slack;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.publisher.Sinks.EmitResult;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Hands {@link SlackEvent}s received from a socket over to {@link SlackService} on its own threads, so that
+ * the socket reader never runs event processors. Up to {@code parallelism} events are processed at once,
+ * up to {@code queueSize} events wait for their turn, and the events beyond that are dropped.
+ */
+public class SlackEventDispatcher implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SlackEventDispatcher.class);
+
+    private final SlackService slackService;
+
+    private final Queue<SlackEvent> queue;
+
+    private final Sinks.Many<SlackEvent> sink;
+
+    private final Scheduler scheduler;
+
+    private final Disposable subscription;
+
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    private final Counter droppedCount;
+
+    /**
+     * TBW.
+     */
+    public SlackEventDispatcher(SlackService slackService, String name, int parallelism, int queueSize,
+                                MeterRegistry meterRegistry) {
+        this.slackService = requireNonNull(slackService, "slackService");
+        requireNonNull(name, "name");
+        checkArgument(parallelism > 0, "parallelism: %s (expected: > 0)", parallelism);
+        checkArgument(queueSize > 0, "queueSize: %s (expected: > 0)", queueSize);
+        requireNonNull(meterRegistry, "meterRegistry");
+
+        queue = new ArrayBlockingQueue<>(queueSize);
+        sink = Sinks.many().unicast().onBackpressureBuffer(queue);
+        scheduler = Schedulers.newBoundedElastic(parallelism, Integer.MAX_VALUE,
+                                                 "youngbot-slack-" + name + "-dispatcher", 60, true);
+        subscription = sink.asFlux()
+                           .flatMap(this::process, parallelism)
+                           .subscribe();
+
+        Gauge.builder("youngbot.slack.dispatcher.queue.size", queue, Queue::size)
+             .tag("dispatcher", name)
+             .register(meterRegistry);
+        Gauge.builder("youngbot.slack.dispatcher.active", activeCount, AtomicInteger::get)
+             .tag("dispatcher", name)
+             .register(meterRegistry);
+        droppedCount = Counter.builder("youngbot.slack.dispatcher.dropped")
+                              .tag("dispatcher", name)
+                              .register(meterRegistry);
+    }
+
+    /**
+     * Queues the event without blocking. Returns {@code false} if the event is dropped because the queue
+     * is full.
+     */
+    public boolean dispatch(SlackEvent event) {
+        requireNonNull(event, "event");
+
+        final EmitResult result;
+        // Socket Mode emits from multiple connections while the sink expects a single producer.
+        synchronized (sink) {
+            result = sink.tryEmitNext(event);
+        }
+        if (result.isSuccess()) {
+            return true;
+        }
+
+        droppedCount.increment();
+        logger.warn("Failed to dispatch event<{}>;result<{}>", event, result);
+        return false;
+    }
+
+    /**
+     * Returns the number of events waiting to be processed.
+     */
+    public int queueSize() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() {
+        subscription.dispose();
+        scheduler.dispose();
+    }
+
+    private Mono<Void> process(SlackEvent event) {
+        return Mono.defer(() -> slackService.processEvent(event))
+                   .subscribeOn(scheduler)
+                   .doOnSubscribe(s -> activeCount.incrementAndGet())
+                   .doFinally(signal -> activeCount.decrementAndGet())
+                   .onErrorResume(t -> {
+                       logger.error("Failed to handle event<{}>", event, t);
+                       return Mono.empty();
+                   });
+    }
+}
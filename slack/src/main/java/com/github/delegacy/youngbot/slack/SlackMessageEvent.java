@@ -3,14 +3,30 @@ package com.github.delegacy.youngbot.slack;
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static java.util.Objects.requireNonNull;
 
-import com.github.delegacy.youngbot.event.message.MessageEvent;
+import com.github.delegacy.youngbot.event.message.ChannelMessageEvent;
 import com.google.common.base.MoreObjects;
 
 /**
  * TBW.
  */
-public final class SlackMessageEvent implements MessageEvent,
+public final class SlackMessageEvent implements ChannelMessageEvent,
                                                 SlackReplyableEvent {
+    /**
+     * Converts a Slack timestamp such as {@code 1609426800.000100} into microseconds since the epoch.
+     */
+    private static long toMicros(String ts) {
+        final int dot = ts.indexOf('.');
+        try {
+            if (dot < 0) {
+                return Long.parseLong(ts) * 1_000_000;
+            }
+            final String micros = (ts.substring(dot + 1) + "000000").substring(0, 6);
+            return Long.parseLong(ts.substring(0, dot)) * 1_000_000 + Long.parseLong(micros);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     /**
      * TBW.
      */
@@ -18,17 +34,26 @@ public final class SlackMessageEvent implements MessageEvent,
         requireNonNull(messageEvent, "messageEvent");
 
         return of(messageEvent.getChannel(), messageEvent.getText(), messageEvent.getUser(),
-                  firstNonNull(messageEvent.getThreadTs(), messageEvent.getTs()));
+                  firstNonNull(messageEvent.getThreadTs(), messageEvent.getTs()), messageEvent.getTs());
     }
 
     /**
      * TBW.
      */
     public static SlackMessageEvent of(String channel, String text, String user, String threadTs) {
+        return of(channel, text, user, threadTs, threadTs);
+    }
+
+    /**
+     * TBW.
+     */
+    public static SlackMessageEvent of(String channel, String text, String user, String threadTs,
+                                       String messageTs) {
         return new SlackMessageEvent(requireNonNull(channel, "channel"),
                                      requireNonNull(text, "text"),
                                      requireNonNull(user, "user"),
-                                     requireNonNull(threadTs, "threadTs"));
+                                     requireNonNull(threadTs, "threadTs"),
+                                     requireNonNull(messageTs, "messageTs"));
     }
 
     private final String channel;
@@ -39,11 +64,14 @@ public final class SlackMessageEvent implements MessageEvent,
 
     private final String threadTs;
 
-    private SlackMessageEvent(String channel, String text, String user, String threadTs) {
+    private final String messageTs;
+
+    private SlackMessageEvent(String channel, String text, String user, String threadTs, String messageTs) {
         this.channel = channel;
         this.text = text;
         this.user = user;
         this.threadTs = threadTs;
+        this.messageTs = messageTs;
     }
 
     @Override
@@ -66,6 +94,26 @@ public final class SlackMessageEvent implements MessageEvent,
         return threadTs;
     }
 
+    /**
+     * Returns the timestamp of the message itself, which differs from {@link #ts()} for thread replies.
+     */
+    public String messageTs() {
+        return messageTs;
+    }
+
+    /**
+     * Returns {@link #messageTs()} in microseconds, which identifies the message in its channel.
+     */
+    @Override
+    public long messageId() {
+        return toMicros(messageTs);
+    }
+
+    @Override
+    public long timestamp() {
+        return toMicros(messageTs) / 1000;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
@@ -73,6 +121,7 @@ public final class SlackMessageEvent implements MessageEvent,
                           .add("text", text())
                           .add("user", user)
                           .add("threadTs", threadTs)
+                          .add("messageTs", messageTs)
                           .toString();
     }
 }
@@ -5,19 +5,30 @@ import static java.util.Objects.requireNonNull;
 import java.io.Closeable;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
 import javax.websocket.CloseReason.CloseCodes;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.github.delegacy.youngbot.Consumers;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.slack.api.methods.SlackApiException;
 import com.slack.api.model.event.Event;
 import com.slack.api.model.event.GoodbyeEvent;
 import com.slack.api.model.event.HelloEvent;
@@ -29,8 +40,13 @@ import com.slack.api.rtm.RTMEventsDispatcher;
 import com.slack.api.rtm.RTMEventsDispatcherFactory;
 import com.slack.api.rtm.message.PingMessage;
 
-import io.github.resilience4j.ratelimiter.RateLimiter;
-import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 /**
  * TBW.
@@ -38,9 +54,42 @@ import io.github.resilience4j.ratelimiter.RateLimiterConfig;
 public class SlackRtmService implements Closeable {
     private static final Logger logger = LoggerFactory.getLogger(SlackRtmService.class);
 
-    private final RTMClient rtmClient;
+    private static long toMillis(String retryAfterSeconds) {
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfterSeconds.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
 
-    private final SlackService slackService;
+    private static Callable<RTMClient> toFactory(RTMClient rtmClient) {
+        requireNonNull(rtmClient, "rtmClient");
+        return () -> rtmClient;
+    }
+
+    /**
+     * TBW.
+     */
+    public static SlackRtmServiceBuilder builder(RTMClient rtmClient, SlackService slackService) {
+        return builder(toFactory(rtmClient), slackService);
+    }
+
+    /**
+     * Returns a new builder of a {@link SlackRtmService} which creates its {@link RTMClient} with the
+     * specified factory, such as {@code () -> slack.rtmConnect(botToken)}, on its own thread.
+     */
+    public static SlackRtmServiceBuilder builder(Callable<RTMClient> rtmClientFactory,
+                                                 SlackService slackService) {
+        return new SlackRtmServiceBuilder(requireNonNull(rtmClientFactory, "rtmClientFactory"),
+                                          requireNonNull(slackService, "slackService"));
+    }
+
+    private final Callable<RTMClient> rtmClientFactory;
+
+    @Nullable
+    private volatile RTMClient rtmClient;
+
+    private final SlackEventDispatcher eventDispatcher;
 
     private final ScheduledExecutorService executorService;
 
@@ -48,73 +97,141 @@ public class SlackRtmService implements Closeable {
 
     private final AtomicLong rtmMessageId = new AtomicLong();
 
-    // Respect the rate limit for reconnect, https://api.slack.com/docs/rate-limits#rtm
-    private final RateLimiter rateLimiterReconnect =
-            RateLimiter.of("reconnect",
-                           RateLimiterConfig.custom()
-                                            .limitForPeriod(1)
-                                            .limitRefreshPeriod(Duration.ofMinutes(1))
-                                            .build());
+    private final Backoff reconnectBackoff;
+
+    private final Duration pingInterval;
+
+    /**
+     * The time in nanoseconds when each unanswered ping was sent, keyed by its message ID.
+     */
+    private final Map<Long, Long> pendingPings = new ConcurrentHashMap<>();
+
+    /**
+     * The number of the sessions closed after a pong timeout whose close events have not arrived yet, so
+     * that those events are not taken for the close of the current session. If one never arrives, the
+     * close of the current session is ignored instead, and the ping task reconnects when it finds the
+     * session closed.
+     */
+    private final AtomicInteger staleSessions = new AtomicInteger();
+
+    private final AtomicBoolean connected = new AtomicBoolean();
+
+    private final AtomicBoolean reconnectScheduled = new AtomicBoolean();
+
+    private final AtomicInteger reconnectAttempts = new AtomicInteger();
+
+    private final Counter reconnectSuccesses;
+
+    private final Counter reconnectFailures;
+
+    private final Timer pongLatency;
+
+    private final Sinks.Empty<Void> connectedSink = Sinks.empty();
 
     /**
      * TBW.
      */
     public SlackRtmService(RTMClient rtmClient, SlackService slackService) {
-        this(rtmClient, slackService,
-             Executors.newSingleThreadScheduledExecutor(), RTMEventsDispatcherFactory.getInstance());
+        this(toFactory(rtmClient),
+             new SlackEventDispatcher(requireNonNull(slackService, "slackService"), "rtm",
+                                      SlackRtmServiceBuilder.DEFAULT_DISPATCHER_PARALLELISM,
+                                      SlackRtmServiceBuilder.DEFAULT_DISPATCHER_QUEUE_SIZE,
+                                      Metrics.globalRegistry),
+             Executors.newSingleThreadScheduledExecutor(), RTMEventsDispatcherFactory.getInstance(),
+             SlackRtmServiceBuilder.DEFAULT_RECONNECT_BACKOFF, SlackRtmServiceBuilder.DEFAULT_PING_INTERVAL,
+             Metrics.globalRegistry);
     }
 
     @VisibleForTesting
-    SlackRtmService(RTMClient rtmClient, SlackService slackService,
-                    ScheduledExecutorService executorService, RTMEventsDispatcher rtmEventDispatcher) {
-        this.rtmClient = requireNonNull(rtmClient, "rtmClient");
-        this.slackService = requireNonNull(slackService, "slackService");
+    SlackRtmService(Callable<RTMClient> rtmClientFactory, SlackEventDispatcher eventDispatcher,
+                    ScheduledExecutorService executorService, RTMEventsDispatcher rtmEventDispatcher,
+                    Backoff reconnectBackoff, Duration pingInterval, MeterRegistry meterRegistry) {
+        this.rtmClientFactory = requireNonNull(rtmClientFactory, "rtmClientFactory");
+        this.eventDispatcher = requireNonNull(eventDispatcher, "eventDispatcher");
         this.executorService = requireNonNull(executorService, "executorService");
         this.rtmEventDispatcher = requireNonNull(rtmEventDispatcher, "rtmEventDispatcher");
+        this.reconnectBackoff = requireNonNull(reconnectBackoff, "reconnectBackoff");
+        this.pingInterval = requireNonNull(pingInterval, "pingInterval");
+        requireNonNull(meterRegistry, "meterRegistry");
+
+        Gauge.builder("youngbot.slack.rtm.connected", connected, c -> c.get() ? 1 : 0)
+             .register(meterRegistry);
+        reconnectSuccesses = Counter.builder("youngbot.slack.rtm.reconnects")
+                                    .tag("result", "success")
+                                    .register(meterRegistry);
+        reconnectFailures = Counter.builder("youngbot.slack.rtm.reconnects")
+                                   .tag("result", "failure")
+                                   .register(meterRegistry);
+        pongLatency = Timer.builder("youngbot.slack.rtm.pong.latency")
+                           .register(meterRegistry);
     }
 
     /**
-     * TBW.
-     *
-     * @throws Exception TBW
+     * Starts connecting to Slack in the background, so that the caller is not blocked while Slack is slow
+     * or unreachable. Use {@link #isConnected()} or {@link #whenConnected()} to find out when the
+     * connection is ready.
      */
     @PostConstruct
-    public void init() throws Exception {
-        configureRtmClient();
-    }
-
-    private void configureRtmClient() throws Exception {
+    public void init() {
         rtmEventDispatcher.register(new HelloEventHandler());
         rtmEventDispatcher.register(new GoodbyeEventHandler());
         rtmEventDispatcher.register(new MessageEventHandler());
         rtmEventDispatcher.register(new ReactionAddedEventHandler());
 
+        executorService.execute(this::connect);
+
+        executorService.scheduleWithFixedDelay(
+                new PingTask(), pingInterval.toMillis(), pingInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void configureRtmClient(RTMClient rtmClient) {
         rtmClient.addMessageHandler(rtmEventDispatcher.toMessageHandler());
+        rtmClient.addMessageHandler(this::handlePong);
         rtmClient.addErrorHandler(t -> logger.warn("A RTM session error occurred.", t));
         rtmClient.addCloseHandler(reason -> {
+            if (staleSessions.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                logger.debug("Ignored the close of a stale RTM session because of {}.", reason);
+                return;
+            }
+
             if (reason.getCloseCode() == CloseCodes.NORMAL_CLOSURE) {
                 logger.info("The RTM session is closed because of {}.", reason);
             } else {
                 logger.error("The RTM session is closed because of {}.", reason);
             }
 
-            if (!executorService.isShutdown()) {
-                // Immediately ping for fast reconnection
-                executorService.submit(new PingTask());
-            }
+            connected.set(false);
+            scheduleReconnect();
         });
+    }
 
-        reconnect();
+    /**
+     * Returns whether the RTM session is open and Slack has said hello.
+     */
+    public boolean isConnected() {
+        return connected.get();
+    }
 
-        executorService.scheduleWithFixedDelay(
-                new PingTask(), 30L, 30L, TimeUnit.SECONDS);
+    /**
+     * Returns a {@link Mono} which completes when Slack says hello for the first time.
+     */
+    public Mono<Void> whenConnected() {
+        return connectedSink.asMono();
     }
 
     @Override
     public void close() throws IOException {
         executorService.shutdown();
+        connected.set(false);
 
-        rtmClient.close();
+        try {
+            final RTMClient rtmClient = this.rtmClient;
+            if (rtmClient != null) {
+                rtmClient.close();
+            }
+        } finally {
+            eventDispatcher.close();
+        }
     }
 
     /**
@@ -131,32 +248,154 @@ public class SlackRtmService implements Closeable {
         rtmEventDispatcher.deregister(rtmEventHandler);
     }
 
-    private void reconnect() {
-        if (!rateLimiterReconnect.acquirePermission()) {
-            logger.warn("Failed to acquire permission from the rate limiter");
+    /**
+     * Schedules a reconnection after a delay which grows exponentially with the number of consecutive
+     * attempts, unless one is scheduled already.
+     */
+    private void scheduleReconnect() {
+        scheduleReconnect(0);
+    }
+
+    private void scheduleReconnect(long minDelayMillis) {
+        if (executorService.isShutdown() || !reconnectScheduled.compareAndSet(false, true)) {
             return;
         }
 
+        final int attempt = reconnectAttempts.incrementAndGet();
+        final long delayMillis = Math.max(minDelayMillis, reconnectBackoff.delayMillis(attempt));
+        logger.info("Reconnecting to Slack in {} ms (attempt {})", delayMillis, attempt);
+
         try {
-            rtmClient.reconnect();
+            executorService.schedule(() -> {
+                reconnectScheduled.set(false);
+                connect();
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            reconnectScheduled.set(false);
+            logger.debug("Failed to schedule a reconnection; shutting down", e);
+        }
+    }
+
+    /**
+     * Closes the current session, which does not answer pings, so that it is not left open after
+     * reconnecting. The caller reconnects without waiting for the close event, as the event may arrive
+     * late for a connection which is dead already.
+     */
+    private void closeStaleSession() {
+        final RTMClient rtmClient = this.rtmClient;
+        if (rtmClient == null) {
+            return;
+        }
+
+        staleSessions.incrementAndGet();
+        try {
+            rtmClient.disconnect();
+        } catch (IOException | RuntimeException e) {
+            staleSessions.updateAndGet(n -> Math.max(n - 1, 0));
+            logger.debug("Failed to close the stale RTM session", e);
+        }
+    }
+
+    @VisibleForTesting
+    void connect() {
+        pendingPings.clear();
+
+        try {
+            final RTMClient rtmClient = this.rtmClient;
+            if (rtmClient == null) {
+                // Call rtm.connect only now, as the WebSocket URL it returns expires in 30 seconds.
+                final RTMClient newRtmClient = rtmClientFactory.call();
+                configureRtmClient(newRtmClient);
+                this.rtmClient = newRtmClient;
+                newRtmClient.connect();
+            } else {
+                rtmClient.reconnect();
+            }
+            reconnectSuccesses.increment();
+        } catch (SlackApiException e) {
+            reconnectFailures.increment();
+            logger.warn("Failed to reconnect to Slack", e);
+
+            // Respect the rate limit for reconnect, https://api.slack.com/docs/rate-limits#rtm
+            final String retryAfter = e.getResponse().header("Retry-After");
+            scheduleReconnect(retryAfter != null ? toMillis(retryAfter) : 0);
         } catch (Exception e) {
+            reconnectFailures.increment();
             logger.warn("Failed to reconnect to Slack", e);
+
+            scheduleReconnect();
         }
     }
 
-    static class HelloEventHandler extends RTMEventHandler<HelloEvent> {
+    @VisibleForTesting
+    void handlePong(String message) {
+        if (!message.contains("pong")) {
+            return;
+        }
+
+        final JsonObject json;
+        try {
+            final JsonElement element = JsonParser.parseString(message);
+            if (!element.isJsonObject()) {
+                return;
+            }
+            json = element.getAsJsonObject();
+        } catch (JsonParseException e) {
+            return;
+        }
+
+        final JsonElement type = json.get("type");
+        final JsonElement replyTo = json.get("reply_to");
+        if (type == null || !"pong".equals(type.getAsString()) || replyTo == null) {
+            return;
+        }
+
+        final Long sentNanos = pendingPings.remove(replyTo.getAsLong());
+        if (sentNanos != null) {
+            pongLatency.record(System.nanoTime() - sentNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    class HelloEventHandler extends RTMEventHandler<HelloEvent> {
         @Override
         public void handle(HelloEvent event) {
             logger.debug("Received hello");
+
+            connected.set(true);
+            reconnectAttempts.set(0);
+            connectedSink.tryEmitEmpty();
         }
     }
 
     class PingTask implements Runnable {
         @Override
         public void run() {
+            if (reconnectScheduled.get()) {
+                return;
+            }
+
+            final long now = System.nanoTime();
+            final long timeoutNanos = pingInterval.multipliedBy(2).toNanos();
+            if (pendingPings.values().stream().anyMatch(sent -> now - sent > timeoutNanos)) {
+                logger.warn("Slack has not answered pings for {}, reconnecting to Slack",
+                            pingInterval.multipliedBy(2));
+
+                connected.set(false);
+                closeStaleSession();
+                scheduleReconnect();
+                return;
+            }
+
+            final RTMClient rtmClient = SlackRtmService.this.rtmClient;
+            if (rtmClient == null) {
+                return;
+            }
+
+            final long id = rtmMessageId.incrementAndGet();
             try {
+                pendingPings.put(id, now);
                 rtmClient.sendMessage(PingMessage.builder()
-                                                 .id(rtmMessageId.incrementAndGet())
+                                                 .id(id)
                                                  .build()
                                                  .toJSONString());
             } catch (NullPointerException | IllegalStateException e) {
@@ -164,8 +403,11 @@ public class SlackRtmService implements Closeable {
                 // and it is closed when these exceptions occur
                 logger.debug("The RTM session is closed, reconnecting to Slack", e);
 
-                reconnect();
+                pendingPings.remove(id);
+                connected.set(false);
+                scheduleReconnect();
             } catch (RuntimeException e) {
+                pendingPings.remove(id);
                 logger.warn("Failed to ping Slack", e);
             }
         }
@@ -176,6 +418,11 @@ public class SlackRtmService implements Closeable {
         public void handle(GoodbyeEvent event) {
             logger.debug("Received goodbye");
 
+            final RTMClient rtmClient = SlackRtmService.this.rtmClient;
+            if (rtmClient == null) {
+                return;
+            }
+
             try {
                 rtmClient.disconnect();
             } catch (IOException | RuntimeException e) {
@@ -189,9 +436,7 @@ public class SlackRtmService implements Closeable {
         public void handle(MessageEvent event) {
             logger.debug("Received text<{}> from channel<{}>", event.getText(), event.getChannel());
 
-            slackService.processEvent(SlackMessageEvent.of(event))
-                        .subscribe(Consumers.noop(),
-                                   t -> logger.error("Failed to handle event<{}>", event, t));
+            eventDispatcher.dispatch(SlackMessageEvent.of(event));
         }
     }
 
@@ -201,9 +446,7 @@ public class SlackRtmService implements Closeable {
             logger.debug("Received reaction<{}> from channel<{}>",
                          event.getReaction(), event.getItem().getChannel());
 
-            slackService.processEvent(SlackReactionEvent.of(event))
-                        .subscribe(Consumers.noop(),
-                                   t -> logger.error("Failed to handle event<{}>", event, t));
+            eventDispatcher.dispatch(SlackReactionEvent.of(event));
         }
     }
 }
@@ -0,0 +1,108 @@
+package com.github.delegacy.youngbot.slack;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import com.slack.api.rtm.RTMClient;
+import com.slack.api.rtm.RTMEventsDispatcherFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * TBW.
+ */
+public final class SlackRtmServiceBuilder {
+    static final Duration DEFAULT_RECONNECT_INITIAL_DELAY = Duration.ofSeconds(5);
+
+    static final Duration DEFAULT_RECONNECT_MAX_DELAY = Duration.ofMinutes(1);
+
+    static final Backoff DEFAULT_RECONNECT_BACKOFF =
+            new Backoff(DEFAULT_RECONNECT_INITIAL_DELAY, DEFAULT_RECONNECT_MAX_DELAY, 2.0, 0.2);
+
+    static final Duration DEFAULT_PING_INTERVAL = Duration.ofSeconds(30);
+
+    static final int DEFAULT_DISPATCHER_PARALLELISM = 16;
+
+    static final int DEFAULT_DISPATCHER_QUEUE_SIZE = 1024;
+
+    private final Callable<RTMClient> rtmClientFactory;
+
+    private final SlackService slackService;
+
+    private Duration reconnectInitialDelay = DEFAULT_RECONNECT_INITIAL_DELAY;
+
+    private Duration reconnectMaxDelay = DEFAULT_RECONNECT_MAX_DELAY;
+
+    private Duration pingInterval = DEFAULT_PING_INTERVAL;
+
+    private int dispatcherParallelism = DEFAULT_DISPATCHER_PARALLELISM;
+
+    private int dispatcherQueueSize = DEFAULT_DISPATCHER_QUEUE_SIZE;
+
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    SlackRtmServiceBuilder(Callable<RTMClient> rtmClientFactory, SlackService slackService) {
+        this.rtmClientFactory = rtmClientFactory;
+        this.slackService = slackService;
+    }
+
+    /**
+     * Sets the delays between reconnection attempts, which start from {@code initialDelay} and double
+     * with each consecutive failure up to {@code maxDelay}, randomized by 20%. Slack allows about one
+     * connection per minute with occasional bursts, so {@code maxDelay} should be a minute or longer.
+     */
+    public SlackRtmServiceBuilder reconnectBackoff(Duration initialDelay, Duration maxDelay) {
+        reconnectInitialDelay = requireNonNull(initialDelay, "initialDelay");
+        reconnectMaxDelay = requireNonNull(maxDelay, "maxDelay");
+        return this;
+    }
+
+    /**
+     * TBW.
+     */
+    public SlackRtmServiceBuilder pingInterval(Duration pingInterval) {
+        requireNonNull(pingInterval, "pingInterval");
+        checkArgument(!pingInterval.isZero() && !pingInterval.isNegative(),
+                      "pingInterval: %s (expected: > 0)", pingInterval);
+        this.pingInterval = pingInterval;
+        return this;
+    }
+
+    /**
+     * Sets how many events are processed at once and how many more wait for their turn before new
+     * events are dropped. The events are processed off the WebSocket thread either way.
+     */
+    public SlackRtmServiceBuilder dispatcher(int parallelism, int queueSize) {
+        checkArgument(parallelism > 0, "parallelism: %s (expected: > 0)", parallelism);
+        checkArgument(queueSize > 0, "queueSize: %s (expected: > 0)", queueSize);
+        dispatcherParallelism = parallelism;
+        dispatcherQueueSize = queueSize;
+        return this;
+    }
+
+    /**
+     * TBW.
+     */
+    public SlackRtmServiceBuilder meterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+        return this;
+    }
+
+    /**
+     * TBW.
+     */
+    public SlackRtmService build() {
+        return new SlackRtmService(rtmClientFactory,
+                                   new SlackEventDispatcher(slackService, "rtm", dispatcherParallelism,
+                                                            dispatcherQueueSize, meterRegistry),
+                                   Executors.newSingleThreadScheduledExecutor(),
+                                   RTMEventsDispatcherFactory.getInstance(),
+                                   new Backoff(reconnectInitialDelay, reconnectMaxDelay, 2.0, 0.2),
+                                   pingInterval, meterRegistry);
+    }
+}
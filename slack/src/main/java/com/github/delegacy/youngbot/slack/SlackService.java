@@ -2,31 +2,122 @@ package com.github.delegacy.youngbot.slack;
 
 import static java.util.Objects.requireNonNull;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.delegacy.youngbot.Consumers;
 import com.github.delegacy.youngbot.event.EventService;
+import com.github.delegacy.youngbot.event.TextSplitter;
 import com.slack.api.model.Message;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * TBW.
  */
 public class SlackService {
+    private static final Logger logger = LoggerFactory.getLogger(SlackService.class);
+
+    /**
+     * The maximum number of characters in a message. Slack truncates a longer one.
+     */
+    static final int MAX_TEXT_LENGTH = 40000;
+
+    /**
+     * The maximum number of times the {@code response_url} of a slash command can be used.
+     */
+    static final int MAX_RESPONSE_URL_USES = 5;
+
+    /**
+     * TBW.
+     */
+    public static SlackServiceBuilder builder(EventService eventService, SlackClient slackClient) {
+        return new SlackServiceBuilder(requireNonNull(eventService, "eventService"),
+                                       requireNonNull(slackClient, "slackClient"));
+    }
+
+    private static Flux<SlackEventResponse> split(SlackEventResponse res) {
+        if (res.text().length() <= MAX_TEXT_LENGTH) {
+            return Flux.just(res);
+        }
+
+        return TextSplitter.split(res.text(), MAX_TEXT_LENGTH)
+                           .map(text -> SlackEventResponse.builder(text)
+                                                          .ephemeral(res.ephemeral())
+                                                          .build());
+    }
+
+    /**
+     * Joins the consecutive responses which are either all ephemeral or all not with line breaks.
+     */
+    private static List<SlackEventResponse> join(List<SlackEventResponse> responses) {
+        final List<SlackEventResponse> joined = new ArrayList<>();
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < responses.size(); i++) {
+            final SlackEventResponse res = responses.get(i);
+            if (i > 0 && responses.get(i - 1).ephemeral() == res.ephemeral()) {
+                text.append('\n');
+            }
+            text.append(res.text());
+
+            if (i == responses.size() - 1 || responses.get(i + 1).ephemeral() != res.ephemeral()) {
+                joined.add(SlackEventResponse.builder(text.toString())
+                                             .ephemeral(res.ephemeral())
+                                             .build());
+                text.setLength(0);
+            }
+        }
+        return joined;
+    }
+
     private final EventService eventService;
 
     private final SlackClient slackClient;
 
+    private final Duration commandAckTimeout;
+
+    private final ResponseUrlSender responseUrlSender;
+
+    private final Duration progressiveReplyInterval;
+
+    private final String progressiveReplyPlaceholder;
+
     /**
      * TBW.
      */
     public SlackService(EventService eventService, SlackClient slackClient) {
+        this(eventService, slackClient, SlackServiceBuilder.DEFAULT_COMMAND_ACK_TIMEOUT,
+             new ResponseUrlSender(SlackServiceBuilder.DEFAULT_RESPONSE_URL_CONCURRENCY),
+             Duration.ZERO, SlackServiceBuilder.DEFAULT_PROGRESSIVE_REPLY_PLACEHOLDER);
+    }
+
+    SlackService(EventService eventService, SlackClient slackClient, Duration commandAckTimeout,
+                 ResponseUrlSender responseUrlSender, Duration progressiveReplyInterval,
+                 String progressiveReplyPlaceholder) {
         this.eventService = requireNonNull(eventService, "eventService");
         this.slackClient = requireNonNull(slackClient, "slackClient");
+        this.commandAckTimeout = requireNonNull(commandAckTimeout, "commandAckTimeout");
+        this.responseUrlSender = requireNonNull(responseUrlSender, "responseUrlSender");
+        this.progressiveReplyInterval = requireNonNull(progressiveReplyInterval, "progressiveReplyInterval");
+        this.progressiveReplyPlaceholder = requireNonNull(progressiveReplyPlaceholder,
+                                                          "progressiveReplyPlaceholder");
     }
 
     /**
      * TBW.
      */
     public Mono<Void> processEvent(SlackEvent event) {
+        if (event instanceof SlackMessageEvent) {
+            slackClient.recordMessage((SlackMessageEvent) event);
+        }
+
         final var flux = eventService.process(event);
 
         if (!(event instanceof SlackReplyableEvent)) {
@@ -34,9 +125,57 @@ public class SlackService {
         }
 
         final var cast = (SlackReplyableEvent) event;
-        return flux.map(SlackEventResponse::of)
-                   .flatMap(res -> reply(cast, res))
-                   .then();
+        final Flux<SlackEventResponse> responses = flux.map(SlackEventResponse::of);
+        if (!progressiveReplyInterval.isZero()) {
+            return replyProgressively(cast, responses);
+        }
+
+        // The chunks of a long response are posted one by one so that they show up in order.
+        return responses.flatMap(res -> split(res).concatMap(chunk -> reply(cast, chunk)))
+                        .then();
+    }
+
+    /**
+     * Processes a slash command and returns the responses to acknowledge it with, if all the processors
+     * complete within the acknowledgement timeout. Otherwise, returns an empty list when the timeout
+     * elapses, and sends the responses to the {@code response_url} of the command when they are all
+     * produced. As a {@code response_url} can be used only five times, the responses are joined into as
+     * few messages as possible, and the messages which still do not fit are dropped.
+     */
+    public Mono<List<SlackEventResponse>> processCommand(SlackCommandEvent event) {
+        // The processing goes on after the timeout since the cached Flux is not cancelled.
+        final Flux<SlackEventResponse> responses = eventService.process(event)
+                                                               .map(SlackEventResponse::of)
+                                                               .cache();
+        return responses.collectList()
+                        .timeout(commandAckTimeout, Mono.fromSupplier(() -> {
+                            respondLater(event, responses);
+                            return List.of();
+                        }));
+    }
+
+    private void respondLater(SlackCommandEvent event, Flux<SlackEventResponse> responses) {
+        logger.debug("Processing command<{}> took longer than {}; responding to response_url",
+                     event, commandAckTimeout);
+        responses.collectList()
+                 .flatMapIterable(SlackService::join)
+                 .concatMap(SlackService::split)
+                 .collectList()
+                 .flatMapMany(messages -> {
+                     if (messages.size() > MAX_RESPONSE_URL_USES) {
+                         logger.warn("Dropped {} of {} messages to command<{}> as response_url can be used " +
+                                     "only {} times", messages.size() - MAX_RESPONSE_URL_USES,
+                                     messages.size(), event, MAX_RESPONSE_URL_USES);
+                     }
+                     return Flux.fromIterable(messages).take(MAX_RESPONSE_URL_USES);
+                 })
+                 .concatMap(res -> responseUrlSender.send(event.responseUrl(), res))
+                 .subscribe(Consumers.noop(),
+                            t -> logger.error("Failed to respond to command<{}>", event, t));
+    }
+
+    private Mono<Void> replyProgressively(SlackReplyableEvent event, Flux<SlackEventResponse> responses) {
+        return new ProgressiveReply(event).run(responses);
     }
 
     private Mono<String> reply(SlackReplyableEvent event, SlackEventResponse res) {
@@ -47,4 +186,118 @@ public class SlackService {
         return slackClient.postMessage(event.channel(), res.text(), event.ts())
                           .map(Message::getTs);
     }
+
+    /**
+     * A message which is updated with the responses joined so far, at most once an interval. The text which
+     * does not fit in the message is posted after it when all the responses are produced. The placeholder
+     * of the message is posted on the first response which is not ephemeral, so nothing is posted for
+     * the events which are not replied.
+     */
+    private final class ProgressiveReply {
+        private final SlackReplyableEvent event;
+
+        /**
+         * The timestamp of the message, which is posted once on the first subscription.
+         */
+        private final Mono<String> ts;
+
+        /**
+         * The responses joined so far. It guards itself and {@link #empty}.
+         */
+        private final StringBuilder text = new StringBuilder();
+
+        private boolean empty = true;
+
+        @Nullable
+        private volatile String updated;
+
+        ProgressiveReply(SlackReplyableEvent event) {
+            this.event = event;
+            ts = slackClient.postMessage(event.channel(), progressiveReplyPlaceholder, event.ts())
+                            .map(Message::getTs)
+                            .cache();
+        }
+
+        Mono<Void> run(Flux<SlackEventResponse> responses) {
+            return responses.concatMap(res -> {
+                                if (res.ephemeral()) {
+                                    // Only its recipient can see it, so it is not merged.
+                                    return split(res).concatMap(chunk -> reply(event, chunk))
+                                                     .then(Mono.<Boolean>empty());
+                                }
+                                append(res.text());
+                                return ts.thenReturn(true);
+                            })
+                            // The text is built only when the message is updated, not for every response.
+                            .sample(progressiveReplyInterval)
+                            .onBackpressureLatest()
+                            .concatMap(unused -> head().flatMap(this::update), 1)
+                            .then()
+                            .onErrorResume(cause -> complete().onErrorResume(t -> {
+                                                                  // The placeholder may have failed already.
+                                                                  if (t != cause) {
+                                                                      cause.addSuppressed(t);
+                                                                  }
+                                                                  return Mono.empty();
+                                                              })
+                                                              .then(Mono.error(cause)))
+                            .then(Mono.defer(this::complete));
+        }
+
+        private void append(String next) {
+            synchronized (text) {
+                if (!empty) {
+                    text.append('\n');
+                }
+                text.append(next);
+                empty = false;
+            }
+        }
+
+        /**
+         * Returns the part of the text which fits in the message, split as the whole text would be.
+         */
+        private Mono<String> head() {
+            final String prefix;
+            synchronized (text) {
+                if (empty) {
+                    return Mono.empty();
+                }
+                // The first chunk depends only on the characters up to the limit.
+                prefix = text.substring(0, Math.min(text.length(), MAX_TEXT_LENGTH + 1));
+            }
+            return TextSplitter.split(prefix, MAX_TEXT_LENGTH).next();
+        }
+
+        private Mono<Void> update(String head) {
+            return ts.flatMap(messageTs -> slackClient.updateMessage(event.channel(), messageTs, head))
+                     .doOnSuccess(unused -> updated = head);
+        }
+
+        /**
+         * Updates the message with the first chunk of the whole text and posts the other chunks after it.
+         * Nothing is done if there is nothing to show, as the message has not been posted then.
+         */
+        private Mono<Void> complete() {
+            final String latest;
+            synchronized (text) {
+                latest = empty ? null : text.toString();
+            }
+            if (latest == null) {
+                return Mono.empty();
+            }
+
+            final String channel = event.channel();
+            return TextSplitter.split(latest, MAX_TEXT_LENGTH)
+                               .index()
+                               .concatMap(chunk -> {
+                                   final String part = chunk.getT2();
+                                   if (chunk.getT1() > 0) {
+                                       return slackClient.postMessage(channel, part, event.ts()).then();
+                                   }
+                                   return part.equals(updated) ? Mono.<Void>empty() : update(part);
+                               })
+                               .then();
+        }
+    }
 }
@@ -0,0 +1,83 @@
+package com.github.delegacy.youngbot.slack;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+import com.github.delegacy.youngbot.event.EventService;
+
+/**
+ * TBW.
+ */
+public final class SlackServiceBuilder {
+    static final Duration DEFAULT_COMMAND_ACK_TIMEOUT = Duration.ofSeconds(2);
+
+    static final int DEFAULT_RESPONSE_URL_CONCURRENCY = 8;
+
+    static final String DEFAULT_PROGRESSIVE_REPLY_PLACEHOLDER = "...";
+
+    private final EventService eventService;
+
+    private final SlackClient slackClient;
+
+    private Duration commandAckTimeout = DEFAULT_COMMAND_ACK_TIMEOUT;
+
+    private int responseUrlConcurrency = DEFAULT_RESPONSE_URL_CONCURRENCY;
+
+    private Duration progressiveReplyInterval = Duration.ZERO;
+
+    private String progressiveReplyPlaceholder = DEFAULT_PROGRESSIVE_REPLY_PLACEHOLDER;
+
+    SlackServiceBuilder(EventService eventService, SlackClient slackClient) {
+        this.eventService = eventService;
+        this.slackClient = slackClient;
+    }
+
+    /**
+     * Sets how long a slash command waits for its processors before it is acknowledged. The responses
+     * produced in time are sent in the acknowledgement, and the others are sent to the {@code response_url}
+     * later. Slack requires the acknowledgement within 3 seconds.
+     */
+    public SlackServiceBuilder commandAckTimeout(Duration commandAckTimeout) {
+        requireNonNull(commandAckTimeout, "commandAckTimeout");
+        checkArgument(!commandAckTimeout.isNegative() && commandAckTimeout.compareTo(Duration.ofSeconds(3)) < 0,
+                      "commandAckTimeout: %s (expected: >= 0 and < 3s)", commandAckTimeout);
+        this.commandAckTimeout = commandAckTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of the responses sent to {@code response_url}s at the same time.
+     */
+    public SlackServiceBuilder responseUrlConcurrency(int responseUrlConcurrency) {
+        checkArgument(responseUrlConcurrency > 0, "responseUrlConcurrency: %s (expected: > 0)",
+                      responseUrlConcurrency);
+        this.responseUrlConcurrency = responseUrlConcurrency;
+        return this;
+    }
+
+    /**
+     * Replies to an event with a single message which is edited as the responses are produced, instead of
+     * posting a message per response. The {@code placeholder} is posted first and then replaced with the
+     * responses produced so far, at most once per {@code interval}. A zero interval disables it.
+     */
+    public SlackServiceBuilder progressiveReplies(Duration interval, String placeholder) {
+        requireNonNull(interval, "interval");
+        requireNonNull(placeholder, "placeholder");
+        checkArgument(!interval.isNegative(), "interval: %s (expected: >= 0)", interval);
+        checkArgument(!placeholder.isEmpty(), "placeholder is empty");
+        progressiveReplyInterval = interval;
+        progressiveReplyPlaceholder = placeholder;
+        return this;
+    }
+
+    /**
+     * TBW.
+     */
+    public SlackService build() {
+        return new SlackService(eventService, slackClient, commandAckTimeout,
+                                new ResponseUrlSender(responseUrlConcurrency),
+                                progressiveReplyInterval, progressiveReplyPlaceholder);
+    }
+}
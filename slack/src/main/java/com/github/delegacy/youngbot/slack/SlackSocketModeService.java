@@ -0,0 +1,292 @@
+package com.github.delegacy.youngbot.slack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.slack.api.model.event.MessageEvent;
+import com.slack.api.model.event.ReactionAddedEvent;
+import com.slack.api.util.json.GsonFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.WebsocketClientSpec;
+import reactor.netty.http.websocket.WebsocketInbound;
+import reactor.netty.http.websocket.WebsocketOutbound;
+import reactor.util.retry.Retry;
+
+/**
+ * Receives events through Slack Socket Mode over several concurrent WebSocket connections, acknowledges
+ * each envelope as soon as it arrives and hands its event over to {@link SlackService} through a
+ * {@link SlackEventDispatcher}. Slack spreads the envelopes over the open connections, so the other
+ * connections keep receiving events while one of them is being refreshed.
+ *
+ * @see <a href="https://api.slack.com/apis/connections/socket-implement">Implementing Socket Mode</a>
+ */
+public class SlackSocketModeService implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SlackSocketModeService.class);
+
+    private static final Gson gson = GsonFactory.createSnakeCase();
+
+    private static final int MAX_FRAME_LENGTH = 1024 * 1024;
+
+    @Nullable
+    private static String stringOf(JsonObject json, String name) {
+        final JsonElement element = json.get(name);
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
+
+    private static String ack(String envelopeId) {
+        final JsonObject ack = new JsonObject();
+        ack.addProperty("envelope_id", envelopeId);
+        return ack.toString();
+    }
+
+    private static Counter envelopeCounter(String type, MeterRegistry meterRegistry) {
+        return Counter.builder("youngbot.slack.socketmode.envelopes")
+                      .tag("type", type)
+                      .register(meterRegistry);
+    }
+
+    /**
+     * TBW.
+     */
+    public static SlackSocketModeServiceBuilder builder(String appToken, SlackService slackService) {
+        return new SlackSocketModeServiceBuilder(requireNonNull(appToken, "appToken"),
+                                                 requireNonNull(slackService, "slackService"));
+    }
+
+    private final HttpClient apiClient;
+
+    private final HttpClient webSocketClient = HttpClient.create();
+
+    private final int connections;
+
+    private final Duration reconnectInitialDelay;
+
+    private final Duration reconnectMaxDelay;
+
+    private final SlackEventDispatcher eventDispatcher;
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    private final Counter reconnects;
+
+    /**
+     * The counters of the envelopes keyed by their types, where the unknown types share {@code other}.
+     */
+    private final Map<String, Counter> envelopes;
+
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    @VisibleForTesting
+    SlackSocketModeService(String apiBaseUrl, String appToken, int connections,
+                           Duration reconnectInitialDelay, Duration reconnectMaxDelay,
+                           SlackEventDispatcher eventDispatcher, MeterRegistry meterRegistry) {
+        requireNonNull(apiBaseUrl, "apiBaseUrl");
+        requireNonNull(appToken, "appToken");
+        apiClient = HttpClient.create()
+                              .baseUrl(apiBaseUrl)
+                              .headers(headers -> {
+                                  headers.set(HttpHeaderNames.AUTHORIZATION, "Bearer " + appToken);
+                                  headers.set(HttpHeaderNames.CONTENT_TYPE,
+                                              HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED);
+                              });
+        this.connections = connections;
+        this.reconnectInitialDelay = requireNonNull(reconnectInitialDelay, "reconnectInitialDelay");
+        this.reconnectMaxDelay = requireNonNull(reconnectMaxDelay, "reconnectMaxDelay");
+        this.eventDispatcher = requireNonNull(eventDispatcher, "eventDispatcher");
+        requireNonNull(meterRegistry, "meterRegistry");
+
+        Gauge.builder("youngbot.slack.socketmode.connections", openConnections, AtomicInteger::get)
+             .register(meterRegistry);
+        reconnects = Counter.builder("youngbot.slack.socketmode.reconnects")
+                            .register(meterRegistry);
+        envelopes = Map.of("hello", envelopeCounter("hello", meterRegistry),
+                           "disconnect", envelopeCounter("disconnect", meterRegistry),
+                           "events_api", envelopeCounter("events_api", meterRegistry),
+                           "other", envelopeCounter("other", meterRegistry));
+    }
+
+    /**
+     * Opens the connections without waiting for them to be established.
+     */
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < connections; i++) {
+            subscriptions.add(connect(i));
+        }
+    }
+
+    /**
+     * Returns whether at least one connection is open.
+     */
+    public boolean isConnected() {
+        return openConnections.get() > 0;
+    }
+
+    /**
+     * Returns the number of open connections.
+     */
+    public int openConnections() {
+        return openConnections.get();
+    }
+
+    @Override
+    public void close() {
+        subscriptions.dispose();
+        eventDispatcher.close();
+    }
+
+    private Disposable connect(int index) {
+        return Mono.defer(this::openConnectionUrl)
+                   .flatMapMany(url -> session(index, url))
+                   .doOnError(t -> logger.warn("Failed to keep Socket Mode connection<{}>", index, t))
+                   // The backoff starts over once a connection opens, as the session emits when it does.
+                   .retryWhen(Retry.backoff(Long.MAX_VALUE, reconnectInitialDelay)
+                                   .maxBackoff(reconnectMaxDelay)
+                                   .jitter(0.2)
+                                   .transientErrors(true)
+                                   .doBeforeRetry(signal -> reconnects.increment()))
+                   // Slack closes a connection from time to time after asking to reconnect.
+                   .repeatWhen(completions -> completions.delayElements(reconnectInitialDelay)
+                                                         .doOnNext(n -> reconnects.increment()))
+                   .subscribe();
+    }
+
+    private Mono<String> openConnectionUrl() {
+        return apiClient.post()
+                        .uri("/apps.connections.open")
+                        .responseSingle((res, body) -> body.asString())
+                        .flatMap(body -> {
+                            final JsonObject json = JsonParser.parseString(body).getAsJsonObject();
+                            final JsonElement ok = json.get("ok");
+                            final String url = stringOf(json, "url");
+                            if (ok == null || !ok.getAsBoolean() || url == null) {
+                                final String error = stringOf(json, "error");
+                                logger.error("Failed to open a Socket Mode connection;error<{}>", error);
+                                return Mono.error(new SlackException(
+                                        "Failed to open a Socket Mode connection;error:" + error));
+                            }
+
+                            return Mono.just(url);
+                        });
+    }
+
+    private Flux<Integer> session(int index, String url) {
+        return webSocketClient.websocket(WebsocketClientSpec.builder()
+                                                            .maxFramePayloadLength(MAX_FRAME_LENGTH)
+                                                            .build())
+                              .uri(url)
+                              .handle((in, out) -> handle(index, in, out));
+    }
+
+    /**
+     * Emits the index of the connection when it opens, and completes when it closes.
+     */
+    private Flux<Integer> handle(int index, WebsocketInbound in, WebsocketOutbound out) {
+        logger.info("Opened Socket Mode connection<{}>", index);
+        openConnections.incrementAndGet();
+
+        final Flux<String> acks =
+                in.aggregateFrames(MAX_FRAME_LENGTH)
+                  .receive()
+                  .asString()
+                  .<JsonObject>handle((text, sink) -> {
+                      try {
+                          sink.next(JsonParser.parseString(text).getAsJsonObject());
+                      } catch (RuntimeException e) {
+                          logger.warn("Failed to parse a Socket Mode message<{}>", text, e);
+                      }
+                  })
+                  .takeUntil(envelope -> "disconnect".equals(stringOf(envelope, "type")))
+                  .concatMap(this::handleEnvelope)
+                  .doFinally(signal -> {
+                      logger.info("Closed Socket Mode connection<{}>;signal<{}>", index, signal);
+                      openConnections.decrementAndGet();
+                  });
+
+        return Mono.just(index).concatWith(out.sendString(acks).then().then(Mono.<Integer>empty()));
+    }
+
+    private Mono<String> handleEnvelope(JsonObject envelope) {
+        final String type = String.valueOf(stringOf(envelope, "type"));
+        envelopes.getOrDefault(type, envelopes.get("other")).increment();
+
+        switch (type) {
+            case "hello":
+                logger.debug("Received hello");
+                break;
+            case "disconnect":
+                logger.info("Received disconnect;reason<{}>", stringOf(envelope, "reason"));
+                break;
+            case "events_api":
+                final JsonElement payload = envelope.get("payload");
+                if (payload != null && payload.isJsonObject()) {
+                    // Dispatching only queues the event, so the ack is not delayed by processing it.
+                    dispatchEvent(payload.getAsJsonObject());
+                }
+                break;
+            default:
+                logger.debug("Received an unsupported Socket Mode message<{}>", envelope);
+        }
+
+        final String envelopeId = stringOf(envelope, "envelope_id");
+        return envelopeId != null ? Mono.just(ack(envelopeId)) : Mono.empty();
+    }
+
+    private void dispatchEvent(JsonObject payload) {
+        final JsonElement element = payload.get("event");
+        if (element == null || !element.isJsonObject()) {
+            return;
+        }
+
+        final JsonObject event = element.getAsJsonObject();
+        try {
+            switch (String.valueOf(stringOf(event, "type"))) {
+                case MessageEvent.TYPE_NAME:
+                    // Skip edits, deletions and messages from bots including this one.
+                    if (event.has("subtype") || event.has("bot_id")) {
+                        return;
+                    }
+                    final MessageEvent messageEvent = gson.fromJson(event, MessageEvent.class);
+                    logger.debug("Received text<{}> from channel<{}>",
+                                 messageEvent.getText(), messageEvent.getChannel());
+                    eventDispatcher.dispatch(SlackMessageEvent.of(messageEvent));
+                    break;
+                case ReactionAddedEvent.TYPE_NAME:
+                    final ReactionAddedEvent reactionEvent = gson.fromJson(event, ReactionAddedEvent.class);
+                    logger.debug("Received reaction<{}> from channel<{}>",
+                                 reactionEvent.getReaction(), reactionEvent.getItem().getChannel());
+                    eventDispatcher.dispatch(SlackReactionEvent.of(reactionEvent));
+                    break;
+                default:
+                    break;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to dispatch event<{}>", event, e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.delegacy.youngbot.slack;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * TBW.
+ */
+public final class SlackSocketModeServiceBuilder {
+    private final String appToken;
+
+    private final SlackService slackService;
+
+    private String apiBaseUrl = "https://slack.com/api";
+
+    private int connections = 2;
+
+    private Duration reconnectInitialDelay = Duration.ofSeconds(1);
+
+    private Duration reconnectMaxDelay = Duration.ofMinutes(1);
+
+    private int dispatcherParallelism = SlackRtmServiceBuilder.DEFAULT_DISPATCHER_PARALLELISM;
+
+    private int dispatcherQueueSize = SlackRtmServiceBuilder.DEFAULT_DISPATCHER_QUEUE_SIZE;
+
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    SlackSocketModeServiceBuilder(String appToken, SlackService slackService) {
+        this.appToken = appToken;
+        this.slackService = slackService;
+    }
+
+    /**
+     * Sets the base URL of the Slack Web API, which is {@code https://slack.com/api} by default.
+     */
+    public SlackSocketModeServiceBuilder apiBaseUrl(String apiBaseUrl) {
+        this.apiBaseUrl = requireNonNull(apiBaseUrl, "apiBaseUrl");
+        return this;
+    }
+
+    /**
+     * Sets the number of concurrent connections. Slack allows up to 10 connections per app.
+     */
+    public SlackSocketModeServiceBuilder connections(int connections) {
+        checkArgument(connections > 0 && connections <= 10, "connections: %s (expected: 1-10)", connections);
+        this.connections = connections;
+        return this;
+    }
+
+    /**
+     * TBW.
+     */
+    public SlackSocketModeServiceBuilder reconnectBackoff(Duration initialDelay, Duration maxDelay) {
+        reconnectInitialDelay = requireNonNull(initialDelay, "initialDelay");
+        reconnectMaxDelay = requireNonNull(maxDelay, "maxDelay");
+        return this;
+    }
+
+    /**
+     * TBW.
+     */
+    public SlackSocketModeServiceBuilder dispatcher(int parallelism, int queueSize) {
+        checkArgument(parallelism > 0, "parallelism: %s (expected: > 0)", parallelism);
+        checkArgument(queueSize > 0, "queueSize: %s (expected: > 0)", queueSize);
+        dispatcherParallelism = parallelism;
+        dispatcherQueueSize = queueSize;
+        return this;
+    }
+
+    /**
+     * TBW.
+     */
+    public SlackSocketModeServiceBuilder meterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+        return this;
+    }
+
+    /**
+     * TBW.
+     */
+    public SlackSocketModeService build() {
+        final SlackEventDispatcher eventDispatcher =
+                new SlackEventDispatcher(slackService, "socketmode", dispatcherParallelism, dispatcherQueueSize,
+                                         meterRegistry);
+        return new SlackSocketModeService(apiBaseUrl, appToken, connections,
+                                          reconnectInitialDelay, reconnectMaxDelay,
+                                          eventDispatcher, meterRegistry);
+    }
+}
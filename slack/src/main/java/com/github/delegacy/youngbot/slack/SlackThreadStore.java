@@ -0,0 +1,166 @@
+package com.github.delegacy.youngbot.slack;
+
+import static com.google.common.base.MoreObjects.firstNonNull;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.google.common.cache.Cache;
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.slack.api.model.Message;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * An in-memory store of threads keyed by channel and thread timestamp, which is kept up to date with
+ * the messages flowing through {@link SlackService} so that {@link SlackClient#getThreadOfMessages(String,
+ * String)} does not have to call {@code conversations.replies} for the threads it already knows.
+ *
+ * <p>A thread is stored when it is fetched from Slack or when its parent message is received. Replies
+ * are appended only to the threads already stored, so a stored thread is never missing older messages.
+ * The least recently used threads are evicted when the store is full, and a thread expires {@code ttl}
+ * after it was stored as a whole, however many replies were appended to it since.
+ *
+ * <p>Only the messages this instance receives are appended, and edits and deletions are not tracked at
+ * all, so the store is correct only for a single instance and only up to its TTL.
+ */
+public final class SlackThreadStore {
+    private static String key(String channel, String threadTs) {
+        return channel + '/' + threadTs;
+    }
+
+    private static List<Message> insert(List<Message> messages, Message message) {
+        int index = messages.size();
+        while (index > 0) {
+            final int compared = messages.get(index - 1).getTs().compareTo(message.getTs());
+            if (compared == 0) {
+                return messages;
+            }
+            if (compared < 0) {
+                break;
+            }
+            index--;
+        }
+
+        final List<Message> inserted = new ArrayList<>(messages.size() + 1);
+        inserted.addAll(messages);
+        inserted.add(index, message);
+        return Collections.unmodifiableList(inserted);
+    }
+
+    private final Cache<String, StoredThread> threads;
+
+    private final long ttlNanos;
+
+    private final Ticker ticker;
+
+    /**
+     * TBW.
+     */
+    public SlackThreadStore(long maximumSize, Duration ttl) {
+        this(maximumSize, ttl, Metrics.globalRegistry);
+    }
+
+    /**
+     * TBW.
+     */
+    public SlackThreadStore(long maximumSize, Duration ttl, MeterRegistry meterRegistry) {
+        this(maximumSize, ttl, meterRegistry, Ticker.systemTicker());
+    }
+
+    SlackThreadStore(long maximumSize, Duration ttl, MeterRegistry meterRegistry, Ticker ticker) {
+        checkArgument(maximumSize > 0, "maximumSize: %s (expected: > 0)", maximumSize);
+        requireNonNull(ttl, "ttl");
+        checkArgument(!ttl.isNegative() && !ttl.isZero(), "ttl: %s (expected: > 0)", ttl);
+        ttlNanos = ttl.toNanos();
+        this.ticker = requireNonNull(ticker, "ticker");
+        // Appending a reply counts as a write, so the cache only bounds the memory and
+        // get() enforces the TTL from the time the thread was stored.
+        threads = GuavaCacheMetrics.monitor(requireNonNull(meterRegistry, "meterRegistry"),
+                                            CacheBuilder.newBuilder()
+                                                        .maximumSize(maximumSize)
+                                                        .expireAfterWrite(ttl)
+                                                        .ticker(ticker)
+                                                        .recordStats()
+                                                        .<String, StoredThread>build(),
+                                            "youngbot.slack.threadStore");
+    }
+
+    /**
+     * Returns the messages of the thread, or {@code null} if the thread is not stored.
+     */
+    @Nullable
+    public List<Message> get(String channel, String threadTs) {
+        final String key = key(requireNonNull(channel, "channel"), requireNonNull(threadTs, "threadTs"));
+        final StoredThread thread = threads.getIfPresent(key);
+        if (thread == null) {
+            return null;
+        }
+        if (ticker.read() - thread.storedNanos >= ttlNanos) {
+            threads.asMap().remove(key, thread);
+            return null;
+        }
+        return thread.messages;
+    }
+
+    /**
+     * Stores the whole thread, replacing the previously stored one if any.
+     */
+    public void put(String channel, String threadTs, List<Message> messages) {
+        threads.put(key(requireNonNull(channel, "channel"), requireNonNull(threadTs, "threadTs")),
+                    new StoredThread(List.copyOf(requireNonNull(messages, "messages")), ticker.read()));
+    }
+
+    /**
+     * Adds a message to the thread it belongs to. A parent message starts a new thread, and a reply is
+     * ignored unless its thread is stored already.
+     */
+    public void add(String channel, Message message) {
+        requireNonNull(channel, "channel");
+        requireNonNull(message, "message");
+
+        final String ts = message.getTs();
+        if (ts == null) {
+            return;
+        }
+
+        final String threadTs = firstNonNull(message.getThreadTs(), ts);
+        final String key = key(channel, threadTs);
+        if (ts.equals(threadTs)) {
+            threads.asMap().putIfAbsent(key, new StoredThread(List.of(message), ticker.read()));
+        } else {
+            threads.asMap().computeIfPresent(
+                    key, (k, thread) -> new StoredThread(insert(thread.messages, message), thread.storedNanos));
+        }
+    }
+
+    void add(SlackMessageEvent event) {
+        final Message message = new Message();
+        message.setType("message");
+        message.setUser(event.user());
+        message.setText(event.text());
+        message.setTs(event.messageTs());
+        message.setThreadTs(event.ts());
+        add(event.channel(), message);
+    }
+
+    private static final class StoredThread {
+        private final List<Message> messages;
+
+        private final long storedNanos;
+
+        StoredThread(List<Message> messages, long storedNanos) {
+            this.messages = messages;
+            this.storedNanos = storedNanos;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.delegacy.youngbot.slack;
+
+import com.slack.api.methods.request.chat.ChatDeleteRequest;
+import com.slack.api.methods.request.chat.ChatDeleteScheduledMessageRequest;
+import com.slack.api.methods.request.chat.ChatGetPermalinkRequest;
+import com.slack.api.methods.request.chat.ChatPostEphemeralRequest;
+import com.slack.api.methods.request.chat.ChatPostMessageRequest;
+import com.slack.api.methods.request.chat.ChatScheduleMessageRequest;
+import com.slack.api.methods.request.chat.ChatUpdateRequest;
+import com.slack.api.methods.request.conversations.ConversationsHistoryRequest;
+import com.slack.api.methods.request.conversations.ConversationsRepliesRequest;
+import com.slack.api.methods.response.chat.ChatDeleteResponse;
+import com.slack.api.methods.response.chat.ChatDeleteScheduledMessageResponse;
+import com.slack.api.methods.response.chat.ChatGetPermalinkResponse;
+import com.slack.api.methods.response.chat.ChatPostEphemeralResponse;
+import com.slack.api.methods.response.chat.ChatPostMessageResponse;
+import com.slack.api.methods.response.chat.ChatScheduleMessageResponse;
+import com.slack.api.methods.response.chat.ChatUpdateResponse;
+import com.slack.api.methods.response.conversations.ConversationsHistoryResponse;
+import com.slack.api.methods.response.conversations.ConversationsRepliesResponse;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Calls the Slack Web API methods used by {@link SlackClient}. A response which is not {@code ok} is
+ * emitted as is, and only transport-level failures are signaled as errors.
+ */
+public interface SlackTransport {
+    /**
+     * TBW.
+     */
+    Mono<ChatPostMessageResponse> chatPostMessage(ChatPostMessageRequest req);
+
+    /**
+     * TBW.
+     */
+    Mono<ChatPostEphemeralResponse> chatPostEphemeral(ChatPostEphemeralRequest req);
+
+    /**
+     * TBW.
+     */
+    Mono<ChatUpdateResponse> chatUpdate(ChatUpdateRequest req);
+
+    /**
+     * TBW.
+     */
+    Mono<ChatDeleteResponse> chatDelete(ChatDeleteRequest req);
+
+    /**
+     * TBW.
+     */
+    Mono<ChatScheduleMessageResponse> chatScheduleMessage(ChatScheduleMessageRequest req);
+
+    /**
+     * TBW.
+     */
+    Mono<ChatDeleteScheduledMessageResponse> chatDeleteScheduledMessage(ChatDeleteScheduledMessageRequest req);
+
+    /**
+     * TBW.
+     */
+    Mono<ChatGetPermalinkResponse> chatGetPermalink(ChatGetPermalinkRequest req);
+
+    /**
+     * TBW.
+     */
+    Mono<ConversationsRepliesResponse> conversationsReplies(ConversationsRepliesRequest req);
+
+    /**
+     * TBW.
+     */
+    Mono<ConversationsHistoryResponse> conversationsHistory(ConversationsHistoryRequest req);
+}
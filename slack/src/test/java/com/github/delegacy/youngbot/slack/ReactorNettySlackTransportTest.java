@@ -0,0 +1,175 @@
+package com.github.delegacy.youngbot.slack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.slack.api.methods.SlackApiException;
+import com.slack.api.methods.request.chat.ChatGetPermalinkRequest;
+import com.slack.api.methods.request.chat.ChatPostEphemeralRequest;
+import com.slack.api.methods.request.chat.ChatPostMessageRequest;
+import com.slack.api.methods.request.conversations.ConversationsRepliesRequest;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.test.StepVerifier;
+
+class ReactorNettySlackTransportTest {
+    private static final String POST_MESSAGE =
+            "{\"ok\":true,\"channel\":\"C1\",\"ts\":\"1.000100\",\"message\":{\"type\":\"message\"," +
+            "\"text\":\"hello\",\"ts\":\"1.000100\",\"thread_ts\":\"1.000000\"}}";
+
+    private static final String NOT_FOUND = "{\"ok\":false,\"error\":\"not_found\"}";
+
+    private static final String REPLIES =
+            "{\"ok\":true,\"messages\":[{\"ts\":\"1.000000\"},{\"ts\":\"1.000100\"}]," +
+            "\"response_metadata\":{\"next_cursor\":\"next\"}}";
+
+    private final Map<String, String> requests = new ConcurrentHashMap<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private DisposableServer server;
+
+    private ReactorNettySlackTransport transport;
+
+    @BeforeEach
+    void beforeEach() {
+        server = HttpServer.create()
+                           .host("127.0.0.1")
+                           .port(0)
+                           .doOnConnection(conn -> connections.incrementAndGet())
+                           .route(routes -> routes
+                                   .post("/api/chat.postMessage", (req, res) -> respond(req, res, POST_MESSAGE))
+                                   .post("/api/chat.getPermalink", (req, res) -> respond(req, res, NOT_FOUND))
+                                   .post("/api/conversations.replies", (req, res) -> respond(req, res, REPLIES))
+                                   .post("/api/chat.postEphemeral", (req, res) -> res.status(429)
+                                                                                .header("Retry-After", "3")
+                                                                                .send())
+                                   .head("/api/", (req, res) -> res.status(404).send()))
+                           .bindNow();
+
+        transport = new ReactorNettySlackTransport(HttpClient.create(),
+                                                   "http://127.0.0.1:" + server.port() + "/api", "xoxb-token");
+    }
+
+    @AfterEach
+    void afterEach() {
+        server.disposeNow();
+    }
+
+    private Mono<Void> respond(HttpServerRequest req, HttpServerResponse res, String body) {
+        return req.receive()
+                  .aggregate()
+                  .asString()
+                  .doOnNext(form -> requests.put(req.uri(), req.requestHeaders().get("Authorization") +
+                                                            ' ' + form))
+                  .then(res.header("Content-Type", "application/json")
+                           .sendString(Mono.just(body))
+                           .then());
+    }
+
+    @Test
+    void testChatPostMessage() {
+        StepVerifier.create(transport.chatPostMessage(ChatPostMessageRequest.builder()
+                                                                            .channel("C1")
+                                                                            .text("hello world")
+                                                                            .threadTs("1.000000")
+                                                                            .build()))
+                    .assertNext(res -> {
+                        assertThat(res.isOk()).isTrue();
+                        assertThat(res.getMessage().getText()).isEqualTo("hello");
+                        assertThat(res.getMessage().getThreadTs()).isEqualTo("1.000000");
+                    })
+                    .expectComplete()
+                    .verify();
+
+        assertThat(requests.get("/api/chat.postMessage"))
+                .startsWith("Bearer xoxb-token ")
+                .contains("channel=C1", "text=hello+world", "thread_ts=1.000000");
+    }
+
+    @Test
+    void testChatGetPermalink_notOk() {
+        StepVerifier.create(transport.chatGetPermalink(ChatGetPermalinkRequest.builder()
+                                                                              .channel("C1")
+                                                                              .messageTs("1.000100")
+                                                                              .build()))
+                    .assertNext(res -> {
+                        assertThat(res.isOk()).isFalse();
+                        assertThat(res.getError()).isEqualTo("not_found");
+                    })
+                    .expectComplete()
+                    .verify();
+    }
+
+    @Test
+    void testConversationsReplies() {
+        StepVerifier.create(transport.conversationsReplies(ConversationsRepliesRequest.builder()
+                                                                                      .channel("C1")
+                                                                                      .ts("1.000000")
+                                                                                      .build()))
+                    .assertNext(res -> {
+                        assertThat(res.getMessages()).hasSize(2);
+                        assertThat(res.getResponseMetadata().getNextCursor()).isEqualTo("next");
+                    })
+                    .expectComplete()
+                    .verify();
+    }
+
+    @Test
+    void testChatPostEphemeral_rateLimited() {
+        StepVerifier.create(transport.chatPostEphemeral(ChatPostEphemeralRequest.builder()
+                                                                                .channel("C1")
+                                                                                .user("U1")
+                                                                                .text("hello")
+                                                                                .build()))
+                    .expectErrorSatisfies(t -> {
+                        assertThat(t).isInstanceOf(SlackApiException.class);
+                        final SlackApiException e = (SlackApiException) t;
+                        assertThat(e.getResponse().code()).isEqualTo(429);
+                        assertThat(e.getResponse().header("Retry-After")).isEqualTo("3");
+                    })
+                    .verify();
+    }
+
+    @Test
+    void testSlackClient() {
+        final SlackClient client = SlackClient.builder(transport).build();
+
+        StepVerifier.create(client.getThreadOfMessages("C1", "1.000000"))
+                    .assertNext(messages -> assertThat(messages).hasSize(2))
+                    .expectComplete()
+                    .verify();
+    }
+
+    @Test
+    void testWarmUp() {
+        StepVerifier.create(transport.warmUp(3))
+                    .expectComplete()
+                    .verify();
+
+        assertThat(connections).hasValue(3);
+
+        // The warmed-up connections are reused.
+        StepVerifier.create(transport.chatGetPermalink(ChatGetPermalinkRequest.builder()
+                                                                              .channel("C1")
+                                                                              .messageTs("1.000100")
+                                                                              .build()))
+                    .expectNextCount(1)
+                    .expectComplete()
+                    .verify();
+
+        assertThat(connections).hasValue(3);
+    }
+}
@@ -7,9 +7,12 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -19,8 +22,10 @@ import com.github.delegacy.youngbot.internal.testing.TextFileParameterResolver;
 import com.slack.api.app_backend.events.payload.EventsApiPayload;
 import com.slack.api.bolt.App;
 import com.slack.api.bolt.context.builtin.EventContext;
+import com.slack.api.bolt.context.builtin.SlashCommandContext;
 import com.slack.api.bolt.request.RequestHeaders;
 import com.slack.api.bolt.request.builtin.EventRequest;
+import com.slack.api.bolt.request.builtin.SlashCommandRequest;
 import com.slack.api.bolt.response.Response;
 import com.slack.api.bolt.util.EventsApiPayloadParser;
 import com.slack.api.model.event.MessageEvent;
@@ -47,6 +52,7 @@ class SlackAppBlockingServiceTest {
         verify(app).event(eq(MessageEvent.class), any(SlackAppBlockingService.MessageEventHandler.class));
         verify(app).event(eq(ReactionAddedEvent.class),
                           any(SlackAppBlockingService.ReactionAddedEventHandler.class));
+        verify(app).command(any(Pattern.class), any(SlackAppBlockingService.CommandHandler.class));
     }
 
     @Test
@@ -83,4 +89,39 @@ class SlackAppBlockingServiceTest {
         assertThat(response.getStatusCode()).isEqualTo(200);
         verify(slackService).processEvent(any(SlackReactionEvent.class));
     }
+
+    @Test
+    void testCommandHandler(@Mock SlashCommandContext ctx) throws Exception {
+        final var request = new SlashCommandRequest(
+                "command=%2Feko&text=Hello&channel_id=C1&user_id=U1&response_url=https%3A%2F%2Fexample.com",
+                new RequestHeaders(Collections.emptyMap()));
+        final var captor = ArgumentCaptor.forClass(SlackCommandEvent.class);
+        when(slackService.processCommand(captor.capture())).thenReturn(
+                Mono.just(List.of(SlackEventResponse.builder("Hello").build(),
+                                  SlackEventResponse.builder("World").ephemeral(true).build())));
+
+        final var handler = slackAppBlockingService.new CommandHandler();
+        final var response = handler.apply(request, ctx);
+
+        assertThat(captor.getValue().text()).isEqualTo("/eko Hello");
+        assertThat(captor.getValue().responseUrl()).isEqualTo("https://example.com");
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(response.getBody()).contains("\"text\":\"Hello\\nWorld\"",
+                                                "\"response_type\":\"in_channel\"");
+    }
+
+    @Test
+    void testCommandHandler_respondLater(@Mock SlashCommandContext ctx) throws Exception {
+        final var request = new SlashCommandRequest(
+                "command=%2Fping&channel_id=C1&user_id=U1&response_url=https%3A%2F%2Fexample.com",
+                new RequestHeaders(Collections.emptyMap()));
+        when(slackService.processCommand(any(SlackCommandEvent.class))).thenReturn(Mono.just(List.of()));
+        when(ctx.ack()).thenReturn(Response.ok());
+
+        final var handler = slackAppBlockingService.new CommandHandler();
+        final var response = handler.apply(request, ctx);
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        verify(ctx).ack();
+    }
 }
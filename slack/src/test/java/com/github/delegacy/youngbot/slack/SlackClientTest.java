@@ -2,9 +2,12 @@ package com.github.delegacy.youngbot.slack;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -19,20 +22,29 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.slack.api.methods.AsyncMethodsClient;
+import com.slack.api.methods.request.chat.ChatDeleteRequest;
 import com.slack.api.methods.request.chat.ChatDeleteScheduledMessageRequest;
 import com.slack.api.methods.request.chat.ChatGetPermalinkRequest;
 import com.slack.api.methods.request.chat.ChatPostEphemeralRequest;
 import com.slack.api.methods.request.chat.ChatPostMessageRequest;
 import com.slack.api.methods.request.chat.ChatScheduleMessageRequest;
+import com.slack.api.methods.request.chat.ChatUpdateRequest;
+import com.slack.api.methods.request.conversations.ConversationsHistoryRequest;
 import com.slack.api.methods.request.conversations.ConversationsRepliesRequest;
+import com.slack.api.methods.response.chat.ChatDeleteResponse;
 import com.slack.api.methods.response.chat.ChatDeleteScheduledMessageResponse;
 import com.slack.api.methods.response.chat.ChatGetPermalinkResponse;
 import com.slack.api.methods.response.chat.ChatPostEphemeralResponse;
 import com.slack.api.methods.response.chat.ChatPostMessageResponse;
 import com.slack.api.methods.response.chat.ChatScheduleMessageResponse;
+import com.slack.api.methods.response.chat.ChatUpdateResponse;
+import com.slack.api.methods.response.conversations.ConversationsHistoryResponse;
 import com.slack.api.methods.response.conversations.ConversationsRepliesResponse;
 import com.slack.api.model.Message;
+import com.slack.api.model.ResponseMetadata;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import reactor.test.StepVerifier;
 
 @ExtendWith(MockitoExtension.class)
@@ -116,6 +128,54 @@ class SlackClientTest {
                     .verify();
     }
 
+    @Test
+    void testUpdateMessage(@Mock ChatUpdateResponse res) throws Exception {
+        when(res.isOk()).thenReturn(true);
+        when(res.getWarning()).thenReturn(null);
+        when(rawClient.chatUpdate(any(ChatUpdateRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(res));
+
+        StepVerifier.create(client.updateMessage("channel", "ts", "message"))
+                    .expectComplete()
+                    .verify();
+
+        final var captor = ArgumentCaptor.forClass(ChatUpdateRequest.class);
+        verify(rawClient).chatUpdate(captor.capture());
+        final var req = captor.getValue();
+        assertThat(req.getChannel()).isEqualTo("channel");
+        assertThat(req.getTs()).isEqualTo("ts");
+        assertThat(req.getText()).isEqualTo("message");
+    }
+
+    @Test
+    void testUpdateMessage_notOk(@Mock ChatUpdateResponse res) throws Exception {
+        when(res.isOk()).thenReturn(false);
+        when(res.getError()).thenReturn("oops");
+        when(rawClient.chatUpdate(any(ChatUpdateRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(res));
+
+        StepVerifier.create(client.updateMessage("channel", "ts", "message"))
+                    .expectError(SlackException.class)
+                    .verify();
+    }
+
+    @Test
+    void testDeleteMessage(@Mock ChatDeleteResponse res) throws Exception {
+        when(res.isOk()).thenReturn(true);
+        when(rawClient.chatDelete(any(ChatDeleteRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(res));
+
+        StepVerifier.create(client.deleteMessage("channel", "ts"))
+                    .expectComplete()
+                    .verify();
+
+        final var captor = ArgumentCaptor.forClass(ChatDeleteRequest.class);
+        verify(rawClient).chatDelete(captor.capture());
+        final var req = captor.getValue();
+        assertThat(req.getChannel()).isEqualTo("channel");
+        assertThat(req.getTs()).isEqualTo("ts");
+    }
+
     @Test
     void testScheduleMessage(@Mock ChatScheduleMessageResponse res) throws Exception {
         when(res.isOk()).thenReturn(true);
@@ -242,4 +302,205 @@ class SlackClientTest {
                     .expectError(SlackException.class)
                     .verify();
     }
+
+    @Test
+    void testGetPermalink_cached(@Mock ChatGetPermalinkResponse res) throws Exception {
+        when(res.isOk()).thenReturn(true);
+        when(res.getPermalink()).thenReturn("permalink");
+        when(rawClient.chatGetPermalink(any(ChatGetPermalinkRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(res));
+
+        final var cachingClient = SlackClient.builder(rawClient)
+                                             .permalinkCache(10, Duration.ofMinutes(1))
+                                             .build();
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(cachingClient.getPermalink("channel", "messageTs"))
+                        .expectNext("permalink")
+                        .expectComplete()
+                        .verify();
+        }
+
+        verify(rawClient, times(1)).chatGetPermalink(any(ChatGetPermalinkRequest.class));
+    }
+
+    @Test
+    void testMetrics(@Mock ChatPostMessageResponse ok, @Mock ChatPostMessageResponse notOk,
+                     @Mock Message message) throws Exception {
+        when(ok.isOk()).thenReturn(true);
+        when(ok.getMessage()).thenReturn(message);
+        when(notOk.isOk()).thenReturn(false);
+        when(notOk.getError()).thenReturn("channel_not_found");
+        when(rawClient.chatPostMessage(any(ChatPostMessageRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(ok))
+                .thenReturn(CompletableFuture.completedFuture(notOk));
+
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final var meteredClient = SlackClient.builder(rawClient)
+                                             .meterRegistry(meterRegistry)
+                                             .build();
+
+        StepVerifier.create(meteredClient.postMessage("channel", "message"))
+                    .expectNext(message)
+                    .expectComplete()
+                    .verify();
+        StepVerifier.create(meteredClient.postMessage("channel", "message"))
+                    .expectError(SlackException.class)
+                    .verify();
+
+        assertThat(meterRegistry.get("youngbot.slack.client.requests")
+                                .tag("method", "chat.postMessage")
+                                .timer()
+                                .count()).isEqualTo(2);
+        assertThat(meterRegistry.get("youngbot.slack.client.errors")
+                                .tag("method", "chat.postMessage")
+                                .tag("error", "channel_not_found")
+                                .counter()
+                                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void testGetThreadOfMessages_coalesced(@Mock ConversationsRepliesResponse res, @Mock Message message)
+            throws Exception {
+        final var future = new CompletableFuture<ConversationsRepliesResponse>();
+        when(res.isOk()).thenReturn(true);
+        when(res.getMessages()).thenReturn(List.of(message));
+        when(rawClient.conversationsReplies(any(ConversationsRepliesRequest.class))).thenReturn(future);
+
+        final var first = client.getThreadOfMessages("channel", "ts").toFuture();
+        final var second = client.getThreadOfMessages("channel", "ts").toFuture();
+
+        future.complete(res);
+
+        assertThat(first.get()).containsExactly(message);
+        assertThat(second.get()).containsExactly(message);
+        verify(rawClient, times(1)).conversationsReplies(any(ConversationsRepliesRequest.class));
+
+        // Not cached by default, so a later call hits the API again.
+        StepVerifier.create(client.getThreadOfMessages("channel", "ts"))
+                    .expectNext(List.of(message))
+                    .expectComplete()
+                    .verify();
+        verify(rawClient, times(2)).conversationsReplies(any(ConversationsRepliesRequest.class));
+    }
+
+    @Test
+    void testGetThreadOfMessages_notCoalesced(@Mock ConversationsRepliesResponse res) throws Exception {
+        final var future = new CompletableFuture<ConversationsRepliesResponse>();
+        when(res.isOk()).thenReturn(true);
+        when(res.getMessages()).thenReturn(List.of());
+        when(rawClient.conversationsReplies(any(ConversationsRepliesRequest.class))).thenReturn(future);
+
+        final var nonCoalescingClient = SlackClient.builder(rawClient)
+                                                   .coalesceRequests(false)
+                                                   .build();
+        final var first = nonCoalescingClient.getThreadOfMessages("channel", "ts").toFuture();
+        final var second = nonCoalescingClient.getThreadOfMessages("channel", "ts").toFuture();
+
+        future.complete(res);
+
+        assertThat(first.get()).isEmpty();
+        assertThat(second.get()).isEmpty();
+        verify(rawClient, times(2)).conversationsReplies(any(ConversationsRepliesRequest.class));
+    }
+
+    @Test
+    void testGetThreadOfMessages_threadStore(@Mock ConversationsRepliesResponse res) throws Exception {
+        final var parent = new Message();
+        parent.setTs("1.000");
+        final var reply = new Message();
+        reply.setTs("2.000");
+        reply.setThreadTs("1.000");
+        when(res.isOk()).thenReturn(true);
+        when(res.getMessages()).thenReturn(List.of(parent));
+        when(rawClient.conversationsReplies(any(ConversationsRepliesRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(res));
+
+        final var threadStore = new SlackThreadStore(10, Duration.ofMinutes(1));
+        final var storeClient = SlackClient.builder(rawClient)
+                                           .threadStore(threadStore)
+                                           .build();
+
+        // A miss falls back to the API and populates the store.
+        StepVerifier.create(storeClient.getThreadOfMessages("channel", "1.000"))
+                    .expectNext(List.of(parent))
+                    .expectComplete()
+                    .verify();
+
+        threadStore.add("channel", reply);
+
+        StepVerifier.create(storeClient.getThreadOfMessages("channel", "1.000"))
+                    .expectNext(List.of(parent, reply))
+                    .expectComplete()
+                    .verify();
+
+        verify(rawClient, times(1)).conversationsReplies(any(ConversationsRepliesRequest.class));
+    }
+
+    @Test
+    void testStreamThreadOfMessages(@Mock ConversationsRepliesResponse first,
+                                    @Mock ConversationsRepliesResponse second,
+                                    @Mock Message message1, @Mock Message message2) throws Exception {
+        final var metadata = new ResponseMetadata();
+        metadata.setNextCursor("cursor");
+        when(first.isOk()).thenReturn(true);
+        when(first.getMessages()).thenReturn(List.of(message1));
+        when(first.getResponseMetadata()).thenReturn(metadata);
+        when(second.isOk()).thenReturn(true);
+        when(second.getMessages()).thenReturn(List.of(message2));
+        when(rawClient.conversationsReplies(any(ConversationsRepliesRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(first),
+                            CompletableFuture.completedFuture(second));
+
+        StepVerifier.create(client.streamThreadOfMessages("channel", "ts"))
+                    .expectNext(message1, message2)
+                    .expectComplete()
+                    .verify();
+
+        final var captor = ArgumentCaptor.forClass(ConversationsRepliesRequest.class);
+        verify(rawClient, times(2)).conversationsReplies(captor.capture());
+        assertThat(captor.getAllValues()).extracting(ConversationsRepliesRequest::getCursor)
+                                         .containsExactly(null, "cursor");
+        assertThat(captor.getAllValues()).extracting(ConversationsRepliesRequest::getTs)
+                                         .containsOnly("ts");
+    }
+
+    @Test
+    void testStreamHistory_lazy(@Mock ConversationsHistoryResponse res, @Mock Message message)
+            throws Exception {
+        final var metadata = new ResponseMetadata();
+        metadata.setNextCursor("cursor");
+        when(res.isOk()).thenReturn(true);
+        when(res.getMessages()).thenReturn(List.of(message, message));
+        when(res.getResponseMetadata()).thenReturn(metadata);
+        when(rawClient.conversationsHistory(any(ConversationsHistoryRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(res));
+
+        StepVerifier.create(client.streamHistory("channel"), 0)
+                    .expectSubscription()
+                    .then(() -> verify(rawClient, never()).conversationsHistory(
+                            any(ConversationsHistoryRequest.class)))
+                    .thenRequest(1)
+                    .expectNext(message)
+                    .then(() -> verify(rawClient, times(1)).conversationsHistory(
+                            any(ConversationsHistoryRequest.class)))
+                    .thenRequest(2)
+                    .expectNext(message, message)
+                    .thenCancel()
+                    .verify();
+
+        // The pages after the requested messages are never fetched however many there are.
+        verify(rawClient, times(2)).conversationsHistory(any(ConversationsHistoryRequest.class));
+    }
+
+    @Test
+    void testStreamHistory_notOk(@Mock ConversationsHistoryResponse res) throws Exception {
+        when(res.isOk()).thenReturn(false);
+        when(rawClient.conversationsHistory(any(ConversationsHistoryRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(res));
+
+        StepVerifier.create(client.streamHistory("channel"))
+                    .expectError(SlackException.class)
+                    .verify();
+    }
 }
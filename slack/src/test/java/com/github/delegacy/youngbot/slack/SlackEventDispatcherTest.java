@@ -0,0 +1,67 @@
+package com.github.delegacy.youngbot.slack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class SlackEventDispatcherTest {
+    @Mock
+    private SlackService slackService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SlackEventDispatcher eventDispatcher;
+
+    @AfterEach
+    void afterEach() {
+        if (eventDispatcher != null) {
+            eventDispatcher.close();
+        }
+    }
+
+    @Test
+    void testDispatch() throws Exception {
+        final var event = SlackMessageEvent.of("channel", "ping", "user", "threadTs");
+        final var thread = new AtomicReference<Thread>();
+        when(slackService.processEvent(any())).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread());
+            return Mono.empty();
+        });
+        eventDispatcher = new SlackEventDispatcher(slackService, "test", 2, 10, meterRegistry);
+
+        assertThat(eventDispatcher.dispatch(event)).isTrue();
+
+        verify(slackService, timeout(1000)).processEvent(event);
+        assertThat(thread.get()).isNotSameAs(Thread.currentThread());
+    }
+
+    @Test
+    void testDispatch_queueFull() throws Exception {
+        when(slackService.processEvent(any())).thenReturn(Mono.never());
+        eventDispatcher = new SlackEventDispatcher(slackService, "test", 1, 1, meterRegistry);
+
+        assertThat(eventDispatcher.dispatch(SlackMessageEvent.of("channel", "1", "user", "ts"))).isTrue();
+        assertThat(eventDispatcher.dispatch(SlackMessageEvent.of("channel", "2", "user", "ts"))).isTrue();
+        assertThat(eventDispatcher.dispatch(SlackMessageEvent.of("channel", "3", "user", "ts"))).isFalse();
+
+        assertThat(eventDispatcher.queueSize()).isOne();
+        assertThat(meterRegistry.get("youngbot.slack.dispatcher.queue.size").gauge().value()).isOne();
+        assertThat(meterRegistry.get("youngbot.slack.dispatcher.dropped").counter().count()).isOne();
+        verify(slackService, timeout(1000)).processEvent(any());
+    }
+}
@@ -1,20 +1,27 @@
 package com.github.delegacy.youngbot.slack;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import javax.websocket.CloseReason;
+import javax.websocket.CloseReason.CloseCodes;
+
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -23,6 +30,7 @@ import com.github.delegacy.youngbot.slack.SlackRtmService.HelloEventHandler;
 import com.github.delegacy.youngbot.slack.SlackRtmService.MessageEventHandler;
 import com.github.delegacy.youngbot.slack.SlackRtmService.ReactionAddedEventHandler;
 import com.slack.api.model.event.GoodbyeEvent;
+import com.slack.api.model.event.HelloEvent;
 import com.slack.api.model.event.MessageEvent;
 import com.slack.api.model.event.ReactionAddedEvent;
 import com.slack.api.model.event.ReactionAddedEvent.Item;
@@ -32,7 +40,8 @@ import com.slack.api.rtm.RTMErrorHandler;
 import com.slack.api.rtm.RTMEventsDispatcher;
 import com.slack.api.rtm.RTMMessageHandler;
 
-import reactor.core.publisher.Mono;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class SlackRtmServiceTest {
@@ -40,7 +49,7 @@ class SlackRtmServiceTest {
     private RTMClient rtmClient;
 
     @Mock
-    private SlackService slackService;
+    private SlackEventDispatcher eventDispatcher;
 
     @Mock
     private ScheduledExecutorService scheduledExecutorService;
@@ -51,9 +60,17 @@ class SlackRtmServiceTest {
     @Mock
     private RTMMessageHandler rtmMessageHandler;
 
-    @InjectMocks
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private SlackRtmService slackRtmService;
 
+    @BeforeEach
+    void beforeEach() {
+        final var backoff = new Backoff(Duration.ofMillis(100), Duration.ofSeconds(1), 2.0, 0);
+        slackRtmService = new SlackRtmService(() -> rtmClient, eventDispatcher, scheduledExecutorService,
+                                              rtmEventDispatcher, backoff, Duration.ofMillis(1), meterRegistry);
+    }
+
     @Test
     void testInit() throws Exception {
         when(rtmEventDispatcher.toMessageHandler()).thenReturn(rtmMessageHandler);
@@ -64,17 +81,63 @@ class SlackRtmServiceTest {
         verify(rtmEventDispatcher).register(any(GoodbyeEventHandler.class));
         verify(rtmEventDispatcher).register(any(MessageEventHandler.class));
         verify(rtmEventDispatcher).register(any(ReactionAddedEventHandler.class));
+        verify(scheduledExecutorService).scheduleWithFixedDelay(
+                any(SlackRtmService.PingTask.class), anyLong(), anyLong(), any(TimeUnit.class));
+
+        // Connecting is left to the executor.
+        final var captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduledExecutorService).execute(captor.capture());
+        verify(rtmClient, never()).connect();
+
+        captor.getValue().run();
 
         verify(rtmClient).addMessageHandler(eq(rtmMessageHandler));
         verify(rtmClient).addErrorHandler(any(RTMErrorHandler.class));
         verify(rtmClient).addCloseHandler(any(RTMCloseHandler.class));
+        verify(rtmClient).connect();
+    }
+
+    @Test
+    void testConnect_reconnectAfterFirstConnect() throws Exception {
+        slackRtmService.connect();
+        slackRtmService.connect();
+
+        verify(rtmClient).connect();
         verify(rtmClient).reconnect();
-        verify(scheduledExecutorService).scheduleWithFixedDelay(
-                any(SlackRtmService.PingTask.class), anyLong(), anyLong(), any(TimeUnit.class));
+        assertThat(meterRegistry.get("youngbot.slack.rtm.reconnects").tag("result", "success")
+                                .counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testConnect_factoryFailure() throws Exception {
+        final var service = new SlackRtmService(() -> {
+            throw new IOException();
+        }, eventDispatcher, scheduledExecutorService, rtmEventDispatcher,
+                new Backoff(Duration.ofMillis(100), Duration.ofSeconds(1), 2.0, 0), Duration.ofMillis(1),
+                meterRegistry);
+
+        service.connect();
+        // Pings are skipped until a client is created.
+        service.new PingTask().run();
+
+        verify(scheduledExecutorService).schedule(any(Runnable.class), eq(100L), eq(TimeUnit.MILLISECONDS));
+        assertThat(service.isConnected()).isFalse();
+    }
+
+    @Test
+    void testWhenConnected() throws Exception {
+        final var whenConnected = slackRtmService.whenConnected().toFuture();
+        assertThat(whenConnected).isNotDone();
+
+        slackRtmService.new HelloEventHandler().handle(new HelloEvent());
+
+        assertThat(whenConnected).isCompleted();
     }
 
     @Test
     void testPingTask_whenSessionIsOpen() throws Exception {
+        slackRtmService.connect();
+
         final var pingTask = slackRtmService.new PingTask();
         pingTask.run();
 
@@ -84,16 +147,102 @@ class SlackRtmServiceTest {
     @Test
     void testPingTask_whenSessionIsClosed() throws Exception {
         doThrow(IllegalStateException.class).when(rtmClient).sendMessage(anyString());
+        slackRtmService.connect();
+
+        final var pingTask = slackRtmService.new PingTask();
+        pingTask.run();
+
+        verify(scheduledExecutorService).schedule(any(Runnable.class), eq(100L), eq(TimeUnit.MILLISECONDS));
+        assertThat(slackRtmService.isConnected()).isFalse();
+    }
+
+    @Test
+    void testPingTask_whenPongIsMissing() throws Exception {
+        slackRtmService.connect();
+
+        final var pingTask = slackRtmService.new PingTask();
+        pingTask.run();
+
+        Thread.sleep(10);
+        pingTask.run();
+
+        verify(rtmClient).sendMessage(anyString());
+        verify(rtmClient).disconnect();
+        verify(scheduledExecutorService).schedule(any(Runnable.class), eq(100L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testPingTask_staleSessionCloseIsIgnored() throws Exception {
+        final var closeHandler = ArgumentCaptor.forClass(RTMCloseHandler.class);
+        slackRtmService.connect();
+        verify(rtmClient).addCloseHandler(closeHandler.capture());
 
         final var pingTask = slackRtmService.new PingTask();
         pingTask.run();
 
-        // 1 from configureRtmClient, 1 from pingTask
-        verify(rtmClient, atLeastOnce()).reconnect();
+        Thread.sleep(10);
+        pingTask.run();
+
+        final var reconnect = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduledExecutorService).schedule(reconnect.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        reconnect.getValue().run();
+        verify(rtmClient).reconnect();
+
+        // The close of the stale session arrives only after reconnecting, and does not close the new one.
+        closeHandler.getValue().handle(new CloseReason(CloseCodes.GOING_AWAY, "stale"));
+        verify(scheduledExecutorService, never()).schedule(any(Runnable.class), eq(200L),
+                                                           eq(TimeUnit.MILLISECONDS));
+
+        closeHandler.getValue().handle(new CloseReason(CloseCodes.GOING_AWAY, "current"));
+        verify(scheduledExecutorService).schedule(any(Runnable.class), eq(200L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testHandlePong() throws Exception {
+        slackRtmService.connect();
+
+        final var pingTask = slackRtmService.new PingTask();
+        pingTask.run();
+
+        slackRtmService.handlePong("{\"type\":\"pong\",\"reply_to\":1}");
+        // Neither unknown nor duplicate replies are recorded.
+        slackRtmService.handlePong("{\"type\":\"pong\",\"reply_to\":1}");
+        slackRtmService.handlePong("{\"type\":\"pong\",\"reply_to\":2}");
+        slackRtmService.handlePong("{\"type\":\"message\",\"text\":\"pong\"}");
+
+        assertThat(meterRegistry.get("youngbot.slack.rtm.pong.latency").timer().count()).isOne();
+    }
+
+    @Test
+    void testReconnect_backoff() throws Exception {
+        doThrow(IOException.class).when(rtmClient).connect();
+        doThrow(IOException.class).when(rtmClient).reconnect();
+
+        slackRtmService.connect();
+
+        final var captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduledExecutorService).schedule(captor.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+
+        captor.getValue().run();
+
+        verify(scheduledExecutorService).schedule(any(Runnable.class), eq(200L), eq(TimeUnit.MILLISECONDS));
+        assertThat(meterRegistry.get("youngbot.slack.rtm.reconnects").tag("result", "failure")
+                                .counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testHelloEventHandler() throws Exception {
+        final var helloEventHandler = slackRtmService.new HelloEventHandler();
+        helloEventHandler.handle(new HelloEvent());
+
+        assertThat(slackRtmService.isConnected()).isTrue();
+        assertThat(meterRegistry.get("youngbot.slack.rtm.connected").gauge().value()).isOne();
     }
 
     @Test
     void testGoodbyeEventHandler() throws Exception {
+        slackRtmService.connect();
+
         final var goodbyeEventHandler = slackRtmService.new GoodbyeEventHandler();
         goodbyeEventHandler.handle(new GoodbyeEvent());
 
@@ -108,12 +257,10 @@ class SlackRtmServiceTest {
         event.setUser("user");
         event.setThreadTs("threadTs");
 
-        when(slackService.processEvent(any())).thenReturn(Mono.empty());
-
         final var messageHandler = slackRtmService.new MessageEventHandler();
         messageHandler.handle(event);
 
-        verify(slackService).processEvent(any(SlackMessageEvent.class));
+        verify(eventDispatcher).dispatch(any(SlackMessageEvent.class));
     }
 
     @Test
@@ -126,11 +273,9 @@ class SlackRtmServiceTest {
         item.setTs("ts");
         event.setItem(item);
 
-        when(slackService.processEvent(any())).thenReturn(Mono.empty());
-
         final var handler = slackRtmService.new ReactionAddedEventHandler();
         handler.handle(event);
 
-        verify(slackService).processEvent(any(SlackReactionEvent.class));
+        verify(eventDispatcher).dispatch(any(SlackReactionEvent.class));
     }
 }
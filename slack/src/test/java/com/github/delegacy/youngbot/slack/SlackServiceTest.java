@@ -1,15 +1,26 @@
 package com.github.delegacy.youngbot.slack;
 
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -20,6 +31,8 @@ import com.slack.api.model.Message;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
 import reactor.test.StepVerifier;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,9 +43,34 @@ class SlackServiceTest {
     @Mock
     private SlackClient slackClient;
 
-    @InjectMocks
+    private final List<String> responded = new CopyOnWriteArrayList<>();
+
+    private DisposableServer server;
+
     private SlackService slackService;
 
+    @BeforeEach
+    void beforeEach() {
+        server = HttpServer.create()
+                           .host("127.0.0.1")
+                           .port(0)
+                           .route(routes -> routes.post("/response_url", (req, res) -> req
+                                   .receive()
+                                   .aggregate()
+                                   .asString()
+                                   .doOnNext(responded::add)
+                                   .then(res.status(200).send())))
+                           .bindNow();
+        slackService = SlackService.builder(eventService, slackClient)
+                                   .commandAckTimeout(Duration.ofMillis(200))
+                                   .build();
+    }
+
+    @AfterEach
+    void afterEach() {
+        server.disposeNow();
+    }
+
     @Test
     void testProcessEvent(@Mock Message message) throws Exception {
         final var event = SlackMessageEvent.of("channel", "ping", "user", "threadTs");
@@ -44,9 +82,29 @@ class SlackServiceTest {
                     .expectComplete()
                     .verify();
 
+        verify(slackClient).recordMessage(event);
         verify(slackClient).postMessage(eq("channel"), eq("PONG"), eq("threadTs"));
     }
 
+    @Test
+    void testProcessEvent_longResponseIsSplit(@Mock Message message) throws Exception {
+        final var event = SlackMessageEvent.of("channel", "ping", "user", "threadTs");
+        final String first = "a".repeat(SlackService.MAX_TEXT_LENGTH - 1);
+        final String second = "b".repeat(10);
+        when(eventService.process(any(Event.class)))
+                .thenReturn(Flux.just(EventResponse.of(first + ' ' + second)));
+        when(slackClient.postMessage(anyString(), anyString(), anyString())).thenReturn(Mono.just(message));
+        when(message.getTs()).thenReturn("messageTs");
+
+        StepVerifier.create(slackService.processEvent(event))
+                    .expectComplete()
+                    .verify();
+
+        final InOrder inOrder = inOrder(slackClient);
+        inOrder.verify(slackClient).postMessage(eq("channel"), eq(first), eq("threadTs"));
+        inOrder.verify(slackClient).postMessage(eq("channel"), eq(second), eq("threadTs"));
+    }
+
     @Test
     void testProcessEvent_ephemeral() throws Exception {
         final var event = SlackReactionEvent.of("channel", ":+1:", "user", "threadTs");
@@ -75,4 +133,149 @@ class SlackServiceTest {
         verify(slackClient, never()).postMessage(anyString(), anyString(), anyString());
         verify(slackClient, never()).postEphemeral(anyString(), anyString(), anyString(), anyString());
     }
+
+    @Test
+    void testProcessEvent_progressive(@Mock Message message) throws Exception {
+        final var event = SlackMessageEvent.of("channel", "count", "user", "threadTs");
+        when(eventService.process(any(Event.class))).thenReturn(
+                Flux.range(1, 20)
+                    .delayElements(Duration.ofMillis(20))
+                    .map(n -> EventResponse.of(String.valueOf(n))));
+        when(slackClient.postMessage(anyString(), anyString(), anyString())).thenReturn(Mono.just(message));
+        when(message.getTs()).thenReturn("messageTs");
+        final List<String> updates = new CopyOnWriteArrayList<>();
+        when(slackClient.updateMessage(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            updates.add(invocation.getArgument(2));
+            return Mono.empty();
+        });
+
+        StepVerifier.create(SlackService.builder(eventService, slackClient)
+                                        .progressiveReplies(Duration.ofMillis(100), "...")
+                                        .build()
+                                        .processEvent(event))
+                    .expectComplete()
+                    .verify();
+
+        verify(slackClient).postMessage(eq("channel"), eq("..."), eq("threadTs"));
+        verify(slackClient, never()).deleteMessage(anyString(), anyString());
+        assertThat(updates).hasSizeLessThan(20);
+        assertThat(updates.get(updates.size() - 1))
+                .isEqualTo(IntStream.rangeClosed(1, 20).mapToObj(String::valueOf).collect(joining("\n")));
+    }
+
+    @Test
+    void testProcessEvent_progressiveEmpty() throws Exception {
+        final var event = SlackMessageEvent.of("channel", "count", "user", "threadTs");
+        when(eventService.process(any(Event.class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(SlackService.builder(eventService, slackClient)
+                                        .progressiveReplies(Duration.ofMillis(100), "...")
+                                        .build()
+                                        .processEvent(event))
+                    .expectComplete()
+                    .verify();
+
+        verify(slackClient, never()).postMessage(anyString(), anyString(), anyString());
+        verify(slackClient, never()).updateMessage(anyString(), anyString(), anyString());
+        verify(slackClient, never()).deleteMessage(anyString(), anyString());
+    }
+
+    @Test
+    void testProcessEvent_progressiveError(@Mock Message message) throws Exception {
+        final var event = SlackMessageEvent.of("channel", "count", "user", "threadTs");
+        when(eventService.process(any(Event.class))).thenReturn(
+                Flux.just(EventResponse.of("1"))
+                    .concatWith(Flux.error(new IllegalStateException("oops"))));
+        when(slackClient.postMessage(anyString(), anyString(), anyString())).thenReturn(Mono.just(message));
+        when(message.getTs()).thenReturn("messageTs");
+        when(slackClient.updateMessage(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
+
+        StepVerifier.create(SlackService.builder(eventService, slackClient)
+                                        .progressiveReplies(Duration.ofSeconds(10), "...")
+                                        .build()
+                                        .processEvent(event))
+                    .expectError(IllegalStateException.class)
+                    .verify();
+
+        // The placeholder is replaced with what was produced before the error.
+        verify(slackClient).updateMessage(eq("channel"), eq("messageTs"), eq("1"));
+    }
+
+    @Test
+    void testProcessEvent_progressiveLongResponseIsSplit(@Mock Message message) throws Exception {
+        final var event = SlackMessageEvent.of("channel", "count", "user", "threadTs");
+        final String head = "a".repeat(SlackService.MAX_TEXT_LENGTH);
+        when(eventService.process(any(Event.class))).thenReturn(Flux.just(EventResponse.of(head),
+                                                                          EventResponse.of("tail")));
+        when(slackClient.postMessage(anyString(), anyString(), anyString())).thenReturn(Mono.just(message));
+        when(message.getTs()).thenReturn("messageTs");
+        when(slackClient.updateMessage(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
+
+        StepVerifier.create(SlackService.builder(eventService, slackClient)
+                                        .progressiveReplies(Duration.ofMillis(100), "...")
+                                        .build()
+                                        .processEvent(event))
+                    .expectComplete()
+                    .verify();
+
+        verify(slackClient).updateMessage(eq("channel"), eq("messageTs"), eq(head));
+        verify(slackClient).postMessage(eq("channel"), eq("tail"), eq("threadTs"));
+    }
+
+    @Test
+    void testProcessCommand() throws Exception {
+        final var event = SlackCommandEvent.of("/ping", "", "channel", "user", responseUrl());
+        when(eventService.process(any(Event.class))).thenReturn(Flux.just(EventResponse.of("PONG")));
+
+        StepVerifier.create(slackService.processCommand(event))
+                    .assertNext(responses -> assertThat(responses).extracting(SlackEventResponse::text)
+                                                                  .containsExactly("PONG"))
+                    .expectComplete()
+                    .verify();
+
+        assertThat(responded).isEmpty();
+    }
+
+    @Test
+    void testProcessCommand_respondLater() throws Exception {
+        final var event = SlackCommandEvent.of("/ping", "", "channel", "user", responseUrl());
+        when(eventService.process(any(Event.class))).thenReturn(
+                Flux.just(EventResponse.of("PONG"))
+                    .concatWith(Mono.delay(Duration.ofMillis(500)).map(n -> EventResponse.of("LATE"))));
+
+        StepVerifier.create(slackService.processCommand(event))
+                    .assertNext(responses -> assertThat(responses).isEmpty())
+                    .expectComplete()
+                    .verify();
+
+        // The responses are joined so that response_url is used as few times as possible.
+        await().untilAsserted(() -> assertThat(responded).hasSize(1));
+        assertThat(responded.get(0)).contains("\"text\":\"PONG\\nLATE\"", "\"response_type\":\"in_channel\"");
+    }
+
+    @Test
+    void testProcessCommand_respondLaterTooManyTimes() throws Exception {
+        final var event = SlackCommandEvent.of("/ping", "", "channel", "user", responseUrl());
+        // The responses alternate between ephemeral and not, so none of them is joined.
+        when(eventService.process(any(Event.class))).thenReturn(
+                Mono.delay(Duration.ofMillis(300))
+                    .thenMany(Flux.range(0, 7)
+                                  .<EventResponse>map(i -> SlackEventResponse.builder("PONG" + i)
+                                                                             .ephemeral(i % 2 == 0)
+                                                                             .build())));
+
+        StepVerifier.create(slackService.processCommand(event))
+                    .assertNext(responses -> assertThat(responses).isEmpty())
+                    .expectComplete()
+                    .verify();
+
+        await().untilAsserted(() -> assertThat(responded).hasSize(SlackService.MAX_RESPONSE_URL_USES));
+        Thread.sleep(100);
+        assertThat(responded).hasSize(SlackService.MAX_RESPONSE_URL_USES);
+        assertThat(responded.get(4)).contains("\"text\":\"PONG4\"");
+    }
+
+    private String responseUrl() {
+        return "http://127.0.0.1:" + server.port() + "/response_url";
+    }
 }
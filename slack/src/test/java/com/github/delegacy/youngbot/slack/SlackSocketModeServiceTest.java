@@ -0,0 +1,136 @@
+package com.github.delegacy.youngbot.slack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+@ExtendWith(MockitoExtension.class)
+class SlackSocketModeServiceTest {
+    private static final String HELLO = "{\"type\":\"hello\",\"num_connections\":1}";
+
+    private static final String DISCONNECT = "{\"type\":\"disconnect\",\"reason\":\"refresh_requested\"}";
+
+    private static String messageEnvelope(String envelopeId) {
+        return "{\"envelope_id\":\"" + envelopeId + "\",\"type\":\"events_api\"," +
+               "\"accepts_response_payload\":false,\"payload\":{\"type\":\"event_callback\"," +
+               "\"event\":{\"type\":\"message\",\"channel\":\"C1\",\"user\":\"U1\",\"text\":\"ping\"," +
+               "\"ts\":\"1609426800.000100\"}}}";
+    }
+
+    @Mock
+    private SlackService slackService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Queue<String> acks = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private DisposableServer server;
+
+    private SlackSocketModeService socketModeService;
+
+    @AfterEach
+    void afterEach() {
+        if (socketModeService != null) {
+            socketModeService.close();
+        }
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    /**
+     * Starts a stub of Slack which sends the frames returned by {@code frames} for the n-th connection.
+     */
+    private void startServer(IntFunction<Flux<String>> frames) {
+        server = HttpServer.create()
+                           .host("127.0.0.1")
+                           .port(0)
+                           .route(routes -> routes.post("/api/apps.connections.open", (req, res) -> {
+                               final int port = ((InetSocketAddress) req.hostAddress()).getPort();
+                               return res.header("Content-Type", "application/json")
+                                         .sendString(Mono.just("{\"ok\":true,\"url\":\"ws://127.0.0.1:" +
+                                                               port + "/link\"}"));
+                           }).ws("/link", (in, out) -> {
+                               final int n = connectionCount.incrementAndGet();
+                               in.receive().asString().subscribe(acks::add);
+                               return out.sendString(frames.apply(n));
+                           }))
+                           .bindNow();
+    }
+
+    private SlackSocketModeService newService(int connections) {
+        return new SlackSocketModeService("http://127.0.0.1:" + server.port() + "/api", "xapp-token",
+                                          connections, Duration.ofMillis(10), Duration.ofMillis(100),
+                                          new SlackEventDispatcher(slackService, "test", 2, 10, meterRegistry),
+                                          meterRegistry);
+    }
+
+    @Test
+    void testInit() throws Exception {
+        when(slackService.processEvent(any())).thenReturn(Mono.empty());
+        startServer(n -> Flux.just(HELLO, messageEnvelope("envelope-" + n)).concatWith(Flux.never()));
+
+        socketModeService = newService(2);
+        socketModeService.init();
+
+        await().untilAsserted(() -> assertThat(acks).containsExactlyInAnyOrder(
+                "{\"envelope_id\":\"envelope-1\"}", "{\"envelope_id\":\"envelope-2\"}"));
+        assertThat(socketModeService.openConnections()).isEqualTo(2);
+        assertThat(socketModeService.isConnected()).isTrue();
+
+        final var captor = ArgumentCaptor.forClass(SlackEvent.class);
+        verify(slackService, timeout(1000).times(2)).processEvent(captor.capture());
+        assertThat(captor.getAllValues()).allSatisfy(event -> {
+            assertThat(event).isInstanceOf(SlackMessageEvent.class);
+            assertThat(((SlackMessageEvent) event).channel()).isEqualTo("C1");
+            assertThat(((SlackMessageEvent) event).text()).isEqualTo("ping");
+        });
+    }
+
+    @Test
+    void testInit_reconnectOnDisconnect() throws Exception {
+        when(slackService.processEvent(any())).thenReturn(Mono.empty());
+        startServer(n -> {
+            if (n == 1) {
+                return Flux.just(HELLO, DISCONNECT).concatWith(Flux.never());
+            }
+            return Flux.just(HELLO, messageEnvelope("envelope-" + n)).concatWith(Flux.never());
+        });
+
+        socketModeService = newService(1);
+        socketModeService.init();
+
+        await().untilAsserted(() -> assertThat(acks).containsExactly("{\"envelope_id\":\"envelope-2\"}"));
+        assertThat(connectionCount).hasValue(2);
+        verify(slackService, timeout(1000).times(1)).processEvent(any(SlackMessageEvent.class));
+        assertThat(meterRegistry.get("youngbot.slack.socketmode.reconnects").counter().count()).isOne();
+        assertThat(meterRegistry.get("youngbot.slack.socketmode.envelopes").tag("type", "hello")
+                                .counter().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.delegacy.youngbot.slack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Ticker;
+import com.slack.api.model.Message;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SlackThreadStoreTest {
+    private static Message message(String ts, String threadTs) {
+        final Message message = new Message();
+        message.setTs(ts);
+        message.setThreadTs(threadTs);
+        return message;
+    }
+
+    private final SlackThreadStore store = new SlackThreadStore(10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Test
+    void testAdd() throws Exception {
+        final Message parent = message("1.000", null);
+        final Message second = message("3.000", "1.000");
+        final Message first = message("2.000", "1.000");
+
+        store.add("channel", parent);
+        store.add("channel", second);
+        store.add("channel", first);
+        store.add("channel", first);
+
+        assertThat(store.get("channel", "1.000")).containsExactly(parent, first, second);
+    }
+
+    @Test
+    void testAdd_unknownThread() throws Exception {
+        store.add("channel", message("2.000", "1.000"));
+
+        assertThat(store.get("channel", "1.000")).isNull();
+    }
+
+    @Test
+    void testAdd_event() throws Exception {
+        store.add(SlackMessageEvent.of("channel", "ping", "user", "1.000", "1.000"));
+        store.add(SlackMessageEvent.of("channel", "pong", "user", "1.000", "2.000"));
+
+        final List<Message> messages = store.get("channel", "1.000");
+        assertThat(messages).extracting(Message::getText).containsExactly("ping", "pong");
+        assertThat(messages).extracting(Message::getUser).containsOnly("user");
+    }
+
+    @Test
+    void testPut() throws Exception {
+        final Message parent = message("1.000", null);
+
+        store.put("channel", "1.000", List.of(parent));
+
+        assertThat(store.get("channel", "1.000")).containsExactly(parent);
+        assertThat(store.get("other", "1.000")).isNull();
+    }
+
+    @Test
+    void testEviction() throws Exception {
+        final SlackThreadStore smallStore = new SlackThreadStore(1, Duration.ofMinutes(1),
+                                                                 new SimpleMeterRegistry());
+
+        smallStore.add("channel", message("1.000", null));
+        smallStore.add("channel", message("2.000", null));
+
+        assertThat(smallStore.get("channel", "1.000")).isNull();
+        assertThat(smallStore.get("channel", "2.000")).hasSize(1);
+    }
+
+    @Test
+    void testExpiry() throws Exception {
+        final AtomicLong nanos = new AtomicLong();
+        final Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+        final SlackThreadStore expiringStore = new SlackThreadStore(10, Duration.ofSeconds(10),
+                                                                    new SimpleMeterRegistry(), ticker);
+
+        expiringStore.add("channel", message("1.000", null));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(9));
+
+        // Appending a reply does not extend the life of the thread.
+        expiringStore.add("channel", message("2.000", "1.000"));
+        assertThat(expiringStore.get("channel", "1.000")).hasSize(2);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(expiringStore.get("channel", "1.000")).isNull();
+    }
+}
@@ -4,19 +4,29 @@ import static java.util.Objects.requireNonNull;
 
 import java.nio.charset.StandardCharsets;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.github.delegacy.youngbot.boot.YoungBotSettings.ClientBackend;
 import com.github.delegacy.youngbot.boot.YoungBotSettings.Line;
 import com.github.delegacy.youngbot.event.EventService;
 import com.github.delegacy.youngbot.line.LineClient;
 import com.github.delegacy.youngbot.line.LineService;
+import com.github.delegacy.youngbot.line.ReactorNettyLineTransport;
+import com.github.delegacy.youngbot.line.ReplyOverflowStrategy;
 
 import com.linecorp.bot.client.LineMessagingClient;
 import com.linecorp.bot.parser.LineSignatureValidator;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
 /**
  * TBW.
  */
@@ -38,18 +48,55 @@ public class LineConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
+    @ConditionalOnProperty(value = "youngbot.line.client.backend", havingValue = "sdk", matchIfMissing = true)
     public LineMessagingClient lineMessagingClient(YoungBotSettings youngBotSettings) {
         final Line line = requireNonNull(youngBotSettings.getLine(), "line");
         return LineMessagingClient.builder(line.getChannelToken()).build();
     }
 
     /**
-     * TBW.
+     * Creates a {@link LineClient} on the backend selected by {@code youngbot.line.client.backend}.
      */
     @Bean
     @ConditionalOnMissingBean
-    public LineClient lineClient(LineMessagingClient lineMessagingClient) {
-        return new LineClient(lineMessagingClient);
+    public LineClient lineClient(ObjectProvider<LineMessagingClient> lineMessagingClient,
+                                 YoungBotSettings youngBotSettings,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        final Line line = requireNonNull(youngBotSettings.getLine(), "line");
+        final Line.Client client = line.getClient();
+        final MeterRegistry registry = MeterRegistries.meterRegistry(meterRegistry);
+        if (client.getBackend() != ClientBackend.REACTOR_NETTY) {
+            return new LineClient(lineMessagingClient.getObject(), registry);
+        }
+
+        return new LineClient(ReactorNettyLineTransport.builder(line.getChannelToken())
+                                                       .apiBaseUrl(client.getApiBaseUrl())
+                                                       .pool(client.getMaxConnections(),
+                                                             client.getPendingAcquireMaxCount())
+                                                       .http2(client.isHttp2())
+                                                       .build(),
+                              registry);
+    }
+
+    /**
+     * Opens {@code youngbot.line.client.warm-up-connections} connections to the LINE Messaging API before
+     * the application reports ready, so that the first replies do not pay for the handshakes. This applies
+     * only to the {@code reactor-netty} backend, as the SDK does not share its connections.
+     * The runner is not created if the number is {@code 0} or a bean of the same name is present.
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "lineClientWarmUp")
+    @ConditionalOnExpression("${youngbot.line.client.warm-up-connections:4} > 0")
+    public ApplicationRunner lineClientWarmUp(LineClient lineClient, YoungBotSettings youngBotSettings) {
+        final Line.Client client = requireNonNull(youngBotSettings.getLine(), "line").getClient();
+        return args -> {
+            if (lineClient.transport() instanceof ReactorNettyLineTransport) {
+                ((ReactorNettyLineTransport) lineClient.transport())
+                        .warmUp(client.getWarmUpConnections())
+                        .timeout(client.getWarmUpTimeout(), Mono.empty())
+                        .block();
+            }
+        };
     }
 
     /**
@@ -57,7 +104,17 @@ public class LineConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
-    public LineService lineService(EventService eventService, LineClient lineClient) {
-        return new LineService(eventService, lineClient);
+    public LineService lineService(EventService eventService, LineClient lineClient,
+                                   YoungBotSettings youngBotSettings,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        final Line line = requireNonNull(youngBotSettings.getLine(), "line");
+        return LineService.builder(eventService, lineClient)
+                          .replyTimeout(line.getReplyTimeout())
+                          .replyMargin(line.getReplyMargin())
+                          .replyOverflowStrategy(ReplyOverflowStrategy.valueOf(line.getReplyOverflow().name()))
+                          .orderedBySource(line.isOrderedBySource())
+                          .eventConcurrency(line.getEventConcurrency())
+                          .meterRegistry(MeterRegistries.meterRegistry(meterRegistry))
+                          .build();
     }
 }
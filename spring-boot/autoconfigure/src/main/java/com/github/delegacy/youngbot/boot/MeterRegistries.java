@@ -0,0 +1,26 @@
+package com.github.delegacy.youngbot.boot;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Resolves the {@link MeterRegistry} the beans record their meters to.
+ */
+final class MeterRegistries {
+    /**
+     * A registry without any child registries, whose meters record nothing.
+     */
+    private static final MeterRegistry NOOP = new CompositeMeterRegistry();
+
+    /**
+     * Returns the {@link MeterRegistry} bean, or a registry which records nothing if there is none, so that
+     * the meters are not left in {@link io.micrometer.core.instrument.Metrics#globalRegistry}.
+     */
+    static MeterRegistry meterRegistry(ObjectProvider<MeterRegistry> meterRegistry) {
+        return meterRegistry.getIfAvailable(() -> NOOP);
+    }
+
+    private MeterRegistries() {}
+}
@@ -2,23 +2,37 @@ package com.github.delegacy.youngbot.boot;
 
 import static java.util.Objects.requireNonNull;
 
-import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.github.delegacy.youngbot.boot.YoungBotSettings.ClientBackend;
 import com.github.delegacy.youngbot.boot.YoungBotSettings.Slack;
 import com.github.delegacy.youngbot.event.EventService;
+import com.github.delegacy.youngbot.slack.ReactorNettySlackTransport;
 import com.github.delegacy.youngbot.slack.SlackAppService;
 import com.github.delegacy.youngbot.slack.SlackClient;
+import com.github.delegacy.youngbot.slack.SlackClientBuilder;
 import com.github.delegacy.youngbot.slack.SlackRtmService;
+import com.github.delegacy.youngbot.slack.SlackRtmServiceBuilder;
 import com.github.delegacy.youngbot.slack.SlackService;
+import com.github.delegacy.youngbot.slack.SlackSocketModeService;
+import com.github.delegacy.youngbot.slack.SlackThreadStore;
 import com.slack.api.bolt.App;
 import com.slack.api.bolt.AppConfig;
 import com.slack.api.rtm.RTMClient;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
 /**
  * TBW.
  */
@@ -44,8 +58,49 @@ public class SlackConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
-    public SlackClient slackClient(App app) {
-        return new SlackClient(app.slack().methodsAsync(app.config().getSingleTeamBotToken()));
+    public SlackClient slackClient(App app, YoungBotSettings youngBotSettings,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        final Slack.Client client = requireNonNull(youngBotSettings.getSlack(), "slack").getClient();
+        final MeterRegistry registry = MeterRegistries.meterRegistry(meterRegistry);
+        final String botToken = app.config().getSingleTeamBotToken();
+        final SlackClientBuilder builder;
+        if (client.getBackend() == ClientBackend.REACTOR_NETTY) {
+            builder = SlackClient.builder(
+                    new ReactorNettySlackTransport(HttpClient.create(), client.getApiBaseUrl(), botToken));
+        } else {
+            builder = SlackClient.builder(app.slack().methodsAsync(botToken));
+        }
+        builder.coalesceRequests(client.isCoalesceRequests())
+               .permalinkCache(client.getPermalinkCache().getMaximumSize(),
+                               client.getPermalinkCache().getTtl())
+               .threadCache(client.getThreadCache().getMaximumSize(), client.getThreadCache().getTtl())
+               .meterRegistry(registry);
+        if (client.getThreadStore().getMaximumSize() > 0) {
+            builder.threadStore(new SlackThreadStore(client.getThreadStore().getMaximumSize(),
+                                                     client.getThreadStore().getTtl(), registry));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Opens {@code youngbot.slack.client.warm-up-connections} connections to the Slack API before the
+     * application reports ready, so that the first replies do not pay for the handshakes. This applies only
+     * to the {@code reactor-netty} backend, as the SDK does not share its connections.
+     * The runner is not created if the number is {@code 0} or a bean of the same name is present.
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "slackClientWarmUp")
+    @ConditionalOnExpression("${youngbot.slack.client.warm-up-connections:4} > 0")
+    public ApplicationRunner slackClientWarmUp(SlackClient slackClient, YoungBotSettings youngBotSettings) {
+        final Slack.Client client = requireNonNull(youngBotSettings.getSlack(), "slack").getClient();
+        return args -> {
+            if (slackClient.transport() instanceof ReactorNettySlackTransport) {
+                ((ReactorNettySlackTransport) slackClient.transport())
+                        .warmUp(client.getWarmUpConnections())
+                        .timeout(client.getWarmUpTimeout(), Mono.empty())
+                        .block();
+            }
+        };
     }
 
     /**
@@ -53,8 +108,15 @@ public class SlackConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
-    public SlackService slackService(EventService eventService, SlackClient slackClient) {
-        return new SlackService(eventService, slackClient);
+    public SlackService slackService(EventService eventService, SlackClient slackClient,
+                                     YoungBotSettings youngBotSettings) {
+        final Slack slack = requireNonNull(youngBotSettings.getSlack(), "slack");
+        return SlackService.builder(eventService, slackClient)
+                           .commandAckTimeout(slack.getCommandAckTimeout())
+                           .responseUrlConcurrency(slack.getResponseUrlConcurrency())
+                           .progressiveReplies(slack.getProgressiveReplyInterval(),
+                                               slack.getProgressiveReplyPlaceholder())
+                           .build();
     }
 
     /**
@@ -67,15 +129,30 @@ public class SlackConfiguration {
     }
 
     /**
-     * TBW.
-     *
-     * @throws Exception TBW
+     * Creates a {@link SlackRtmService} which connects to Slack in the background, so that the application
+     * starts up without waiting for {@code rtm.connect}. An {@link RTMClient} bean is used instead if
+     * present.
      */
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(value = "youngbot.slack.rtm.enabled", havingValue = "true")
-    public RTMClient slackRtmClient(App app) throws Exception {
-        return app.slack().rtmConnect(app.config().getSingleTeamBotToken());
+    public SlackRtmService slackRtmService(App app, ObjectProvider<RTMClient> slackRtmClient,
+                                           SlackService slackService, YoungBotSettings youngBotSettings,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        final Slack.Rtm rtm = requireNonNull(youngBotSettings.getSlack(), "slack").getRtm();
+        final RTMClient rtmClient = slackRtmClient.getIfAvailable();
+        final SlackRtmServiceBuilder builder;
+        if (rtmClient != null) {
+            builder = SlackRtmService.builder(rtmClient, slackService);
+        } else {
+            final String botToken = app.config().getSingleTeamBotToken();
+            builder = SlackRtmService.builder(() -> app.slack().rtmConnect(botToken), slackService);
+        }
+        return builder.reconnectBackoff(rtm.getReconnectInitialDelay(), rtm.getReconnectMaxDelay())
+                      .pingInterval(rtm.getPingInterval())
+                      .dispatcher(rtm.getDispatcher().getParallelism(), rtm.getDispatcher().getQueueSize())
+                      .meterRegistry(MeterRegistries.meterRegistry(meterRegistry))
+                      .build();
     }
 
     /**
@@ -83,8 +160,54 @@ public class SlackConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
-    @ConditionalOnBean(RTMClient.class)
-    public SlackRtmService slackRtmService(RTMClient slackRtmClient, SlackService slackService) {
-        return new SlackRtmService(slackRtmClient, slackService);
+    @ConditionalOnProperty(value = "youngbot.slack.socket-mode.enabled", havingValue = "true")
+    public SlackSocketModeService slackSocketModeService(SlackService slackService,
+                                                         YoungBotSettings youngBotSettings,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        final Slack.SocketMode socketMode =
+                requireNonNull(youngBotSettings.getSlack(), "slack").getSocketMode();
+        return SlackSocketModeService.builder(socketMode.getAppToken(), slackService)
+                                     .apiBaseUrl(socketMode.getApiBaseUrl())
+                                     .connections(socketMode.getConnections())
+                                     .dispatcher(socketMode.getDispatcher().getParallelism(),
+                                                 socketMode.getDispatcher().getQueueSize())
+                                     .meterRegistry(MeterRegistries.meterRegistry(meterRegistry))
+                                     .build();
+    }
+
+    /**
+     * Reports whether Slack is connected over RTM or Socket Mode as the health of {@code slackRtm} or
+     * {@code slackSocketMode}, which is {@code OUT_OF_SERVICE} until the connection opens. Include it in the
+     * readiness group, such as with
+     * {@code management.endpoint.health.group.readiness.include=readinessState,slackRtm}, to hold back the
+     * traffic until the bot is connected.
+     */
+    @Configuration
+    @ConditionalOnClass(HealthIndicator.class)
+    public static class SlackHealthConfiguration {
+        /**
+         * TBW.
+         */
+        @Bean
+        @ConditionalOnMissingBean(name = "slackRtmHealthIndicator")
+        @ConditionalOnProperty(value = "youngbot.slack.rtm.enabled", havingValue = "true")
+        public HealthIndicator slackRtmHealthIndicator(SlackRtmService slackRtmService) {
+            return () -> (slackRtmService.isConnected() ? Health.up() : Health.outOfService()).build();
+        }
+
+        /**
+         * TBW.
+         */
+        @Bean
+        @ConditionalOnMissingBean(name = "slackSocketModeHealthIndicator")
+        @ConditionalOnProperty(value = "youngbot.slack.socket-mode.enabled", havingValue = "true")
+        public HealthIndicator slackSocketModeHealthIndicator(SlackSocketModeService slackSocketModeService) {
+            return () -> {
+                final int connections = slackSocketModeService.openConnections();
+                return (connections > 0 ? Health.up() : Health.outOfService())
+                        .withDetail("connections", connections)
+                        .build();
+            };
+        }
     }
 }
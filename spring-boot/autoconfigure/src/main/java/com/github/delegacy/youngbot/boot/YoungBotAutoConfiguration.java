@@ -1,9 +1,15 @@
 package com.github.delegacy.youngbot.boot;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -11,17 +17,35 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
 
+import com.github.delegacy.youngbot.boot.YoungBotSettings.Line;
+import com.github.delegacy.youngbot.boot.YoungBotSettings.RecentMessages;
+import com.github.delegacy.youngbot.boot.YoungBotSettings.Slack;
 import com.github.delegacy.youngbot.event.EventProcessor;
 import com.github.delegacy.youngbot.event.EventService;
+import com.github.delegacy.youngbot.event.EventServiceBuilder;
 import com.github.delegacy.youngbot.event.message.EchoProcessor;
 import com.github.delegacy.youngbot.event.message.PingProcessor;
+import com.github.delegacy.youngbot.event.message.RecentMessageStore;
+import com.github.delegacy.youngbot.web.MessageWebSocketHandler;
+import com.github.delegacy.youngbot.web.WebhookCodecConfigurer;
+import com.github.delegacy.youngbot.web.WebhookMetricsFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * TBW.
  */
 @Configuration
 @ConditionalOnWebApplication(type = Type.REACTIVE)
+@AutoConfigureAfter(name = {
+        "org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.export.simple." +
+        "SimpleMetricsExportAutoConfiguration"
+})
 @EnableConfigurationProperties(YoungBotSettings.class)
 @Import({ LineConfiguration.class, SlackConfiguration.class })
 @ComponentScan("com.github.delegacy.youngbot")
@@ -32,10 +56,94 @@ public class YoungBotAutoConfiguration {
     @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
     @Bean
     @ConditionalOnMissingBean
-    public EventService eventService(Set<EventProcessor> processors) {
+    public EventService eventService(Set<EventProcessor> processors,
+                                     ObjectProvider<RecentMessageStore> recentMessageStore,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
         final Set<EventProcessor> moreProcessors = new HashSet<>(processors);
         moreProcessors.add(new PingProcessor());
         moreProcessors.add(new EchoProcessor());
-        return new EventService(moreProcessors);
+
+        final EventServiceBuilder builder =
+                EventService.builder(moreProcessors)
+                            .meterRegistry(MeterRegistries.meterRegistry(meterRegistry));
+        recentMessageStore.ifAvailable(builder::recentMessageStore);
+        return builder.build();
+    }
+
+    /**
+     * TBW.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(value = "youngbot.recent-messages.enabled", havingValue = "true",
+            matchIfMissing = true)
+    public RecentMessageStore recentMessageStore(YoungBotSettings youngBotSettings) {
+        final RecentMessages recentMessages = youngBotSettings.getRecentMessages();
+        return new RecentMessageStore(recentMessages.getMessagesPerChannel(),
+                                      Math.toIntExact(recentMessages.getBytesPerChannel().toBytes()),
+                                      recentMessages.getMaxMemory().toBytes());
+    }
+
+    /**
+     * TBW.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public WebhookCodecConfigurer webhookCodecConfigurer() {
+        return new WebhookCodecConfigurer();
+    }
+
+    /**
+     * TBW.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(value = "youngbot.web-socket.enabled", havingValue = "true")
+    public MessageWebSocketHandler messageWebSocketHandler(EventService eventService,
+                                                           YoungBotSettings youngBotSettings) {
+        return new MessageWebSocketHandler(eventService, youngBotSettings.getWebSocket().getMaxInFlight());
+    }
+
+    /**
+     * TBW.
+     */
+    @Bean
+    @ConditionalOnProperty(value = "youngbot.web-socket.enabled", havingValue = "true")
+    public HandlerMapping messageWebSocketHandlerMapping(MessageWebSocketHandler messageWebSocketHandler,
+                                                         YoungBotSettings youngBotSettings) {
+        final String path = youngBotSettings.getWebSocket().getPath();
+        // Takes precedence over the annotated controllers so that the upgrade request reaches the handler.
+        return new SimpleUrlHandlerMapping(Map.of(path, messageWebSocketHandler), -1);
+    }
+
+    /**
+     * Records the requests to the webhook endpoints of the generic web channel, LINE and Slack, whose paths
+     * are configured with {@code youngbot.webhook-path}, {@code youngbot.webhook-batch-path},
+     * {@code youngbot.line.webhook-path} and {@code youngbot.slack.webhook-path}. The filter is not created
+     * unless a {@link MeterRegistry} bean is present.
+     */
+    @Configuration
+    @ConditionalOnBean(MeterRegistry.class)
+    public static class WebhookMetricsConfiguration {
+        /**
+         * TBW.
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public WebhookMetricsFilter webhookMetricsFilter(YoungBotSettings youngBotSettings,
+                                                         MeterRegistry meterRegistry) {
+            final Map<String, String> webhooks = new HashMap<>();
+            webhooks.put(youngBotSettings.getWebhookPath(), "message");
+            webhooks.put(youngBotSettings.getWebhookBatchPath(), "message-batch");
+            final Line line = youngBotSettings.getLine();
+            if (line != null) {
+                webhooks.put(line.getWebhookPath(), "line");
+            }
+            final Slack slack = youngBotSettings.getSlack();
+            if (slack != null) {
+                webhooks.put(slack.getWebhookPath(), "slack");
+            }
+            return new WebhookMetricsFilter(webhooks, meterRegistry);
+        }
     }
 }
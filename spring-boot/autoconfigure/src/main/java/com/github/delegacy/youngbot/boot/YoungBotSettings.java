@@ -2,90 +2,819 @@ package com.github.delegacy.youngbot.boot;
 
 import static java.util.Objects.requireNonNull;
 
+import java.time.Duration;
+
 import javax.annotation.Nullable;
 
-import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * TBW.
+ */
+@ConfigurationProperties(prefix = "youngbot")
+public class YoungBotSettings {
+    /**
+     * TBW.
+     */
+    public static class Cache {
+        private long maximumSize;
+
+        private Duration ttl = Duration.ZERO;
+
+        /**
+         * TBW.
+         */
+        public Cache() {}
+
+        Cache(long maximumSize, Duration ttl) {
+            this.maximumSize = maximumSize;
+            this.ttl = ttl;
+        }
+
+        /**
+         * TBW.
+         */
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        /**
+         * TBW.
+         */
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setTtl(Duration ttl) {
+            this.ttl = requireNonNull(ttl, "ttl");
+        }
+    }
+
+    /**
+     * The HTTP client backend of the outbound API calls.
+     */
+    public enum ClientBackend {
+        /**
+         * The client of the vendor SDK, which runs the calls on its own thread pool.
+         */
+        SDK,
+        /**
+         * Reactor Netty, which shares the event loops and the connection pool with WebFlux.
+         */
+        REACTOR_NETTY
+    }
+
+    /**
+     * TBW.
+     */
+    public static class RecentMessages {
+        private boolean enabled = true;
+
+        private int messagesPerChannel = 64;
+
+        private DataSize bytesPerChannel = DataSize.ofKilobytes(8);
+
+        private DataSize maxMemory = DataSize.ofMegabytes(32);
+
+        /**
+         * TBW.
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * TBW.
+         */
+        public int getMessagesPerChannel() {
+            return messagesPerChannel;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setMessagesPerChannel(int messagesPerChannel) {
+            this.messagesPerChannel = messagesPerChannel;
+        }
+
+        /**
+         * TBW.
+         */
+        public DataSize getBytesPerChannel() {
+            return bytesPerChannel;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setBytesPerChannel(DataSize bytesPerChannel) {
+            this.bytesPerChannel = requireNonNull(bytesPerChannel, "bytesPerChannel");
+        }
+
+        /**
+         * TBW.
+         */
+        public DataSize getMaxMemory() {
+            return maxMemory;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setMaxMemory(DataSize maxMemory) {
+            this.maxMemory = requireNonNull(maxMemory, "maxMemory");
+        }
+    }
+
+    /**
+     * TBW.
+     */
+    public static class WebSocket {
+        private boolean enabled;
+
+        private String path = "/api/message/v1/websocket";
+
+        private int maxInFlight = 8;
+
+        /**
+         * TBW.
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * TBW.
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setPath(String path) {
+            this.path = requireNonNull(path, "path");
+        }
+
+        /**
+         * TBW.
+         */
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+    }
+
+    /**
+     * TBW.
+     */
+    public static class Line {
+        /**
+         * How the responses are sent when there are more than a reply can carry. See
+         * {@code com.github.delegacy.youngbot.line.ReplyOverflowStrategy}.
+         */
+        public enum ReplyOverflow {
+            CONCATENATE,
+            PUSH,
+            TRUNCATE
+        }
+
+        /**
+         * TBW.
+         */
+        public static class Client {
+            private ClientBackend backend = ClientBackend.SDK;
+
+            private String apiBaseUrl = "https://api.line.me";
+
+            private int maxConnections = 100;
+
+            private int pendingAcquireMaxCount = 1000;
+
+            private boolean http2 = true;
+
+            private int warmUpConnections = 4;
+
+            private Duration warmUpTimeout = Duration.ofSeconds(10);
+
+            /**
+             * TBW.
+             */
+            public ClientBackend getBackend() {
+                return backend;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setBackend(ClientBackend backend) {
+                this.backend = requireNonNull(backend, "backend");
+            }
+
+            /**
+             * TBW.
+             */
+            public String getApiBaseUrl() {
+                return apiBaseUrl;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setApiBaseUrl(String apiBaseUrl) {
+                this.apiBaseUrl = requireNonNull(apiBaseUrl, "apiBaseUrl");
+            }
+
+            /**
+             * TBW.
+             */
+            public int getMaxConnections() {
+                return maxConnections;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setMaxConnections(int maxConnections) {
+                this.maxConnections = maxConnections;
+            }
+
+            /**
+             * TBW.
+             */
+            public int getPendingAcquireMaxCount() {
+                return pendingAcquireMaxCount;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+                this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+            }
+
+            /**
+             * TBW.
+             */
+            public boolean isHttp2() {
+                return http2;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setHttp2(boolean http2) {
+                this.http2 = http2;
+            }
+
+            /**
+             * TBW.
+             */
+            public int getWarmUpConnections() {
+                return warmUpConnections;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setWarmUpConnections(int warmUpConnections) {
+                this.warmUpConnections = warmUpConnections;
+            }
+
+            /**
+             * TBW.
+             */
+            public Duration getWarmUpTimeout() {
+                return warmUpTimeout;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setWarmUpTimeout(Duration warmUpTimeout) {
+                this.warmUpTimeout = requireNonNull(warmUpTimeout, "warmUpTimeout");
+            }
+        }
+
+        private String channelToken = "";
+
+        private String channelSecret = "";
+
+        private String webhookPath = "/api/line/v1/webhook";
+
+        private Duration replyTimeout = Duration.ofSeconds(30);
+
+        private Duration replyMargin = Duration.ofSeconds(2);
+
+        private ReplyOverflow replyOverflow = ReplyOverflow.TRUNCATE;
+
+        private boolean orderedBySource;
+
+        private int eventConcurrency = 256;
+
+        private Client client = new Client();
+
+        /**
+         * TBW.
+         */
+        public String getChannelToken() {
+            return channelToken;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setChannelToken(String channelToken) {
+            this.channelToken = requireNonNull(channelToken, "channelToken");
+        }
+
+        /**
+         * TBW.
+         */
+        public String getChannelSecret() {
+            return channelSecret;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setChannelSecret(String channelSecret) {
+            this.channelSecret = requireNonNull(channelSecret, "channelSecret");
+        }
+
+        /**
+         * TBW.
+         */
+        public String getWebhookPath() {
+            return webhookPath;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setWebhookPath(String webhookPath) {
+            this.webhookPath = webhookPath;
+        }
+
+        /**
+         * TBW.
+         */
+        public Duration getReplyTimeout() {
+            return replyTimeout;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setReplyTimeout(Duration replyTimeout) {
+            this.replyTimeout = requireNonNull(replyTimeout, "replyTimeout");
+        }
+
+        /**
+         * TBW.
+         */
+        public Duration getReplyMargin() {
+            return replyMargin;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setReplyMargin(Duration replyMargin) {
+            this.replyMargin = requireNonNull(replyMargin, "replyMargin");
+        }
+
+        /**
+         * TBW.
+         */
+        public ReplyOverflow getReplyOverflow() {
+            return replyOverflow;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setReplyOverflow(ReplyOverflow replyOverflow) {
+            this.replyOverflow = requireNonNull(replyOverflow, "replyOverflow");
+        }
+
+        /**
+         * TBW.
+         */
+        public boolean isOrderedBySource() {
+            return orderedBySource;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setOrderedBySource(boolean orderedBySource) {
+            this.orderedBySource = orderedBySource;
+        }
+
+        /**
+         * TBW.
+         */
+        public int getEventConcurrency() {
+            return eventConcurrency;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setEventConcurrency(int eventConcurrency) {
+            this.eventConcurrency = eventConcurrency;
+        }
+
+        /**
+         * TBW.
+         */
+        public Client getClient() {
+            return client;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setClient(Client client) {
+            this.client = requireNonNull(client, "client");
+        }
+    }
+
+    /**
+     * TBW.
+     */
+    public static class Slack {
+        /**
+         * TBW.
+         */
+        public static class Dispatcher {
+            private int parallelism = 16;
+
+            private int queueSize = 1024;
+
+            /**
+             * TBW.
+             */
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+
+            /**
+             * TBW.
+             */
+            public int getQueueSize() {
+                return queueSize;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setQueueSize(int queueSize) {
+                this.queueSize = queueSize;
+            }
+        }
+
+        /**
+         * TBW.
+         */
+        public static class Rtm {
+            private boolean enabled;
+
+            private Duration reconnectInitialDelay = Duration.ofSeconds(5);
+
+            private Duration reconnectMaxDelay = Duration.ofMinutes(1);
+
+            private Duration pingInterval = Duration.ofSeconds(30);
+
+            private Dispatcher dispatcher = new Dispatcher();
+
+            /**
+             * TBW.
+             */
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            /**
+             * TBW.
+             */
+            public Duration getReconnectInitialDelay() {
+                return reconnectInitialDelay;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setReconnectInitialDelay(Duration reconnectInitialDelay) {
+                this.reconnectInitialDelay = requireNonNull(reconnectInitialDelay, "reconnectInitialDelay");
+            }
+
+            /**
+             * TBW.
+             */
+            public Duration getReconnectMaxDelay() {
+                return reconnectMaxDelay;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setReconnectMaxDelay(Duration reconnectMaxDelay) {
+                this.reconnectMaxDelay = requireNonNull(reconnectMaxDelay, "reconnectMaxDelay");
+            }
+
+            /**
+             * TBW.
+             */
+            public Duration getPingInterval() {
+                return pingInterval;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setPingInterval(Duration pingInterval) {
+                this.pingInterval = requireNonNull(pingInterval, "pingInterval");
+            }
+
+            /**
+             * TBW.
+             */
+            public Dispatcher getDispatcher() {
+                return dispatcher;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setDispatcher(Dispatcher dispatcher) {
+                this.dispatcher = requireNonNull(dispatcher, "dispatcher");
+            }
+        }
+
+        /**
+         * TBW.
+         */
+        public static class SocketMode {
+            private boolean enabled;
+
+            private String appToken = "";
+
+            private String apiBaseUrl = "https://slack.com/api";
+
+            private int connections = 2;
+
+            private Dispatcher dispatcher = new Dispatcher();
+
+            /**
+             * TBW.
+             */
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            /**
+             * TBW.
+             */
+            public String getAppToken() {
+                return appToken;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setAppToken(String appToken) {
+                this.appToken = requireNonNull(appToken, "appToken");
+            }
+
+            /**
+             * TBW.
+             */
+            public String getApiBaseUrl() {
+                return apiBaseUrl;
+            }
 
-/**
- * TBW.
- */
-@ConfigurationProperties(prefix = "youngbot")
-public class YoungBotSettings {
-    /**
-     * TBW.
-     */
-    public static class Line {
-        private String channelToken = "";
+            /**
+             * TBW.
+             */
+            public void setApiBaseUrl(String apiBaseUrl) {
+                this.apiBaseUrl = requireNonNull(apiBaseUrl, "apiBaseUrl");
+            }
 
-        private String channelSecret = "";
+            /**
+             * TBW.
+             */
+            public int getConnections() {
+                return connections;
+            }
 
-        private String webhookPath = "/api/line/v1/webhook";
+            /**
+             * TBW.
+             */
+            public void setConnections(int connections) {
+                this.connections = connections;
+            }
 
-        /**
-         * TBW.
-         */
-        public String getChannelToken() {
-            return channelToken;
-        }
+            /**
+             * TBW.
+             */
+            public Dispatcher getDispatcher() {
+                return dispatcher;
+            }
 
-        /**
-         * TBW.
-         */
-        public void setChannelToken(String channelToken) {
-            this.channelToken = requireNonNull(channelToken, "channelToken");
+            /**
+             * TBW.
+             */
+            public void setDispatcher(Dispatcher dispatcher) {
+                this.dispatcher = requireNonNull(dispatcher, "dispatcher");
+            }
         }
 
         /**
          * TBW.
          */
-        public String getChannelSecret() {
-            return channelSecret;
-        }
+        public static class Client {
+            private ClientBackend backend = ClientBackend.SDK;
 
-        /**
-         * TBW.
-         */
-        public void setChannelSecret(String channelSecret) {
-            this.channelSecret = requireNonNull(channelSecret, "channelSecret");
-        }
+            private String apiBaseUrl = "https://slack.com/api";
 
-        /**
-         * TBW.
-         */
-        public String getWebhookPath() {
-            return webhookPath;
-        }
+            private int warmUpConnections = 4;
 
-        /**
-         * TBW.
-         */
-        public void setWebhookPath(String webhookPath) {
-            this.webhookPath = webhookPath;
-        }
-    }
+            private Duration warmUpTimeout = Duration.ofSeconds(10);
 
-    /**
-     * TBW.
-     */
-    public static class Slack {
-        /**
-         * TBW.
-         */
-        public static class Rtm {
-            private boolean enabled;
+            private boolean coalesceRequests = true;
+
+            private Cache permalinkCache = new Cache(1000, Duration.ofHours(1));
+
+            private Cache threadCache = new Cache(1000, Duration.ofSeconds(10));
+
+            private Cache threadStore = new Cache(0, Duration.ofSeconds(10));
 
             /**
              * TBW.
              */
-            public boolean isEnabled() {
-                return enabled;
+            public ClientBackend getBackend() {
+                return backend;
             }
 
             /**
              * TBW.
              */
-            public void setEnabled(boolean enabled) {
-                this.enabled = enabled;
+            public void setBackend(ClientBackend backend) {
+                this.backend = requireNonNull(backend, "backend");
+            }
+
+            /**
+             * TBW.
+             */
+            public boolean isCoalesceRequests() {
+                return coalesceRequests;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setCoalesceRequests(boolean coalesceRequests) {
+                this.coalesceRequests = coalesceRequests;
+            }
+
+            /**
+             * TBW.
+             */
+            public Cache getPermalinkCache() {
+                return permalinkCache;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setPermalinkCache(Cache permalinkCache) {
+                this.permalinkCache = requireNonNull(permalinkCache, "permalinkCache");
+            }
+
+            /**
+             * TBW.
+             */
+            public Cache getThreadCache() {
+                return threadCache;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setThreadCache(Cache threadCache) {
+                this.threadCache = requireNonNull(threadCache, "threadCache");
+            }
+
+            /**
+             * Returns the settings of the {@code SlackThreadStore}, which is disabled unless its maximum size
+             * is set. It is correct only when a single instance receives all events of the workspace.
+             */
+            public Cache getThreadStore() {
+                return threadStore;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setThreadStore(Cache threadStore) {
+                this.threadStore = requireNonNull(threadStore, "threadStore");
+            }
+
+            /**
+             * TBW.
+             */
+            public String getApiBaseUrl() {
+                return apiBaseUrl;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setApiBaseUrl(String apiBaseUrl) {
+                this.apiBaseUrl = requireNonNull(apiBaseUrl, "apiBaseUrl");
+            }
+
+            /**
+             * TBW.
+             */
+            public int getWarmUpConnections() {
+                return warmUpConnections;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setWarmUpConnections(int warmUpConnections) {
+                this.warmUpConnections = warmUpConnections;
+            }
+
+            /**
+             * TBW.
+             */
+            public Duration getWarmUpTimeout() {
+                return warmUpTimeout;
+            }
+
+            /**
+             * TBW.
+             */
+            public void setWarmUpTimeout(Duration warmUpTimeout) {
+                this.warmUpTimeout = requireNonNull(warmUpTimeout, "warmUpTimeout");
             }
         }
 
@@ -95,8 +824,20 @@ public class YoungBotSettings {
 
         private String webhookPath = "/api/slack/v1/webhook";
 
+        private Duration commandAckTimeout = Duration.ofSeconds(2);
+
+        private int responseUrlConcurrency = 8;
+
+        private Duration progressiveReplyInterval = Duration.ZERO;
+
+        private String progressiveReplyPlaceholder = "...";
+
         private Rtm rtm = new Rtm();
 
+        private SocketMode socketMode = new SocketMode();
+
+        private Client client = new Client();
+
         /**
          * TBW.
          */
@@ -139,6 +880,64 @@ public class YoungBotSettings {
             this.webhookPath = webhookPath;
         }
 
+        /**
+         * TBW.
+         */
+        public Duration getCommandAckTimeout() {
+            return commandAckTimeout;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setCommandAckTimeout(Duration commandAckTimeout) {
+            this.commandAckTimeout = requireNonNull(commandAckTimeout, "commandAckTimeout");
+        }
+
+        /**
+         * TBW.
+         */
+        public int getResponseUrlConcurrency() {
+            return responseUrlConcurrency;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setResponseUrlConcurrency(int responseUrlConcurrency) {
+            this.responseUrlConcurrency = responseUrlConcurrency;
+        }
+
+        /**
+         * TBW.
+         */
+        public Duration getProgressiveReplyInterval() {
+            return progressiveReplyInterval;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setProgressiveReplyInterval(Duration progressiveReplyInterval) {
+            this.progressiveReplyInterval = requireNonNull(progressiveReplyInterval,
+                                                           "progressiveReplyInterval");
+        }
+
+        /**
+         * TBW.
+         */
+        public String getProgressiveReplyPlaceholder() {
+            return progressiveReplyPlaceholder;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setProgressiveReplyPlaceholder(String progressiveReplyPlaceholder) {
+            this.progressiveReplyPlaceholder = requireNonNull(progressiveReplyPlaceholder,
+                                                              "progressiveReplyPlaceholder");
+        }
+
         /**
          * TBW.
          */
@@ -152,6 +951,34 @@ public class YoungBotSettings {
         public void setRtm(Rtm rtm) {
             this.rtm = rtm;
         }
+
+        /**
+         * TBW.
+         */
+        public Client getClient() {
+            return client;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setClient(Client client) {
+            this.client = requireNonNull(client, "client");
+        }
+
+        /**
+         * TBW.
+         */
+        public SocketMode getSocketMode() {
+            return socketMode;
+        }
+
+        /**
+         * TBW.
+         */
+        public void setSocketMode(SocketMode socketMode) {
+            this.socketMode = requireNonNull(socketMode, "socketMode");
+        }
     }
 
     @Nullable
@@ -162,6 +989,12 @@ public class YoungBotSettings {
 
     private String webhookPath = "/api/message/v1/webhook";
 
+    private String webhookBatchPath = "/api/message/v1/webhook/batch";
+
+    private RecentMessages recentMessages = new RecentMessages();
+
+    private WebSocket webSocket = new WebSocket();
+
     /**
      * TBW.
      */
@@ -205,4 +1038,46 @@ public class YoungBotSettings {
     public void setWebhookPath(String webhookPath) {
         this.webhookPath = webhookPath;
     }
+
+    /**
+     * TBW.
+     */
+    public String getWebhookBatchPath() {
+        return webhookBatchPath;
+    }
+
+    /**
+     * TBW.
+     */
+    public void setWebhookBatchPath(String webhookBatchPath) {
+        this.webhookBatchPath = requireNonNull(webhookBatchPath, "webhookBatchPath");
+    }
+
+    /**
+     * TBW.
+     */
+    public RecentMessages getRecentMessages() {
+        return recentMessages;
+    }
+
+    /**
+     * TBW.
+     */
+    public void setRecentMessages(RecentMessages recentMessages) {
+        this.recentMessages = requireNonNull(recentMessages, "recentMessages");
+    }
+
+    /**
+     * TBW.
+     */
+    public WebSocket getWebSocket() {
+        return webSocket;
+    }
+
+    /**
+     * TBW.
+     */
+    public void setWebSocket(WebSocket webSocket) {
+        this.webSocket = requireNonNull(webSocket, "webSocket");
+    }
 }
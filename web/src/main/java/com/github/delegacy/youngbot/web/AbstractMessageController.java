@@ -1,21 +1,32 @@
 package com.github.delegacy.youngbot.web;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ServerWebInputException;
 
 import com.github.delegacy.youngbot.event.EventService;
 import com.github.delegacy.youngbot.event.message.MessageEvent;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -24,24 +35,185 @@ import reactor.core.publisher.Mono;
 public abstract class AbstractMessageController {
     private static final Logger logger = LoggerFactory.getLogger(AbstractMessageController.class);
 
+    /**
+     * The number of the requests in a batch processed at the same time by default.
+     */
+    protected static final int DEFAULT_BATCH_CONCURRENCY = 16;
+
+    /**
+     * The longest deadline a request waits for its responses by default.
+     */
+    protected static final Duration DEFAULT_MAX_DEADLINE = Duration.ofSeconds(30);
+
+    @Nullable
+    private static URI parseCallbackUrl(String callbackUrl) {
+        try {
+            final URI uri = URI.create(callbackUrl);
+            final String scheme = uri.getScheme();
+            final boolean http = "http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme);
+            return http && uri.getHost() != null ? uri : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String origin(URI uri) {
+        final String origin = uri.getScheme() + "://" + uri.getHost();
+        return (uri.getPort() < 0 ? origin : origin + ':' + uri.getPort()).toLowerCase(Locale.ROOT);
+    }
+
     private final EventService eventService;
 
+    private final int batchConcurrency;
+
+    private final WebClient callbackClient;
+
+    private final Set<String> allowedCallbackOrigins;
+
+    private final Duration maxDeadline;
+
     /**
      * TBW.
      */
     protected AbstractMessageController(EventService eventService) {
+        this(eventService, DEFAULT_BATCH_CONCURRENCY);
+    }
+
+    /**
+     * Creates a new instance which processes up to {@code batchConcurrency} requests of a batch at the same
+     * time.
+     */
+    protected AbstractMessageController(EventService eventService, int batchConcurrency) {
+        this(eventService, batchConcurrency, WebClient.create());
+    }
+
+    /**
+     * Creates a new instance which posts the responses produced after the deadline of a request with the
+     * specified {@link WebClient}.
+     */
+    protected AbstractMessageController(EventService eventService, int batchConcurrency,
+                                        WebClient callbackClient) {
+        this(eventService, batchConcurrency, callbackClient, Set.of(), DEFAULT_MAX_DEADLINE);
+    }
+
+    /**
+     * Creates a new instance which posts the responses produced after the deadline of a request only to a
+     * callback URL whose origin, such as {@code https://example.com:8443}, or host is in
+     * {@code allowedCallbackOrigins}, and waits for the responses up to {@code maxDeadline} however long
+     * the deadline of a request is. A request with a callback URL is rejected if
+     * {@code allowedCallbackOrigins} is empty.
+     */
+    protected AbstractMessageController(EventService eventService, int batchConcurrency,
+                                        WebClient callbackClient, Set<String> allowedCallbackOrigins,
+                                        Duration maxDeadline) {
         this.eventService = requireNonNull(eventService, "eventService");
+        checkArgument(batchConcurrency > 0, "batchConcurrency: %s (expected: > 0)", batchConcurrency);
+        this.batchConcurrency = batchConcurrency;
+        this.callbackClient = requireNonNull(callbackClient, "callbackClient");
+        this.allowedCallbackOrigins = requireNonNull(allowedCallbackOrigins, "allowedCallbackOrigins")
+                .stream()
+                .map(origin -> origin.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        requireNonNull(maxDeadline, "maxDeadline");
+        checkArgument(!maxDeadline.isNegative(), "maxDeadline: %s (expected: >= 0)", maxDeadline);
+        this.maxDeadline = maxDeadline;
     }
 
     /**
-     * TBW.
+     * Replies with the {@link WebhookResponse}s to the request. If the request has a deadline, only the
+     * responses produced within the deadline are replied with, and the others are posted to the callback
+     * URL of the request as a JSON array when they are all produced. The deadline is capped at the
+     * maximum this controller is created with.
      */
     @PostMapping("${youngbot.webhook-path:/api/message/v1/webhook}")
     public Mono<List<WebhookResponse>> onWebhook(@RequestBody Mono<WebhookRequest> request) {
-        return request.map(req -> MessageEvent.of(req.getText()))
-                      .flatMapMany(eventService::process)
-                      .map(WebhookResponse::new)
-                      .collectList();
+        return request.flatMap(req -> {
+            final Long deadlineMillis = req.getDeadlineMillis();
+            if (deadlineMillis == null) {
+                return process(req).collectList();
+            }
+            final Duration deadline = Duration.ofMillis(deadlineMillis);
+            return processWithDeadline(req, deadline.compareTo(maxDeadline) > 0 ? maxDeadline : deadline);
+        });
+    }
+
+    /**
+     * Streams each {@link WebhookResponse} as soon as it is produced, as newline-delimited JSON or server-sent
+     * events, instead of replying with all of them at once. This is chosen over
+     * {@link #onWebhook(Mono)} when the client accepts {@code application/x-ndjson} or
+     * {@code text/event-stream} explicitly.
+     */
+    @PostMapping(path = "${youngbot.webhook-path:/api/message/v1/webhook}",
+            produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<WebhookResponse> onWebhookStream(@RequestBody Mono<WebhookRequest> request) {
+        return request.flatMapMany(this::process);
+    }
+
+    /**
+     * Processes a batch of requests, sent as a JSON array or as newline-delimited JSON, and returns the
+     * result of each request in the order of the requests. A request which fails does not fail the others.
+     */
+    @PostMapping("${youngbot.webhook-batch-path:/api/message/v1/webhook/batch}")
+    public Flux<WebhookBatchResponse> onWebhookBatch(@RequestBody Flux<WebhookRequest> requests) {
+        return requests.flatMapSequential(this::processBatchItem, batchConcurrency);
+    }
+
+    private Flux<WebhookResponse> process(WebhookRequest request) {
+        return eventService.process(MessageEvent.of(request.getText()))
+                           .map(WebhookResponse::new);
+    }
+
+    private Mono<List<WebhookResponse>> processWithDeadline(WebhookRequest request, Duration deadline) {
+        final String callbackUrl = request.getCallbackUrl();
+        if (callbackUrl != null && !isAllowedCallbackUrl(callbackUrl)) {
+            return Mono.error(new ServerWebInputException("Invalid callbackUrl: " + callbackUrl));
+        }
+
+        final Flux<WebhookResponse> responses = process(request).cache();
+        return responses.takeUntilOther(Mono.delay(deadline))
+                        .collectList()
+                        .doOnNext(onTime -> deliverLate(callbackUrl, responses.skip(onTime.size())));
+    }
+
+    private boolean isAllowedCallbackUrl(String callbackUrl) {
+        final URI uri = parseCallbackUrl(callbackUrl);
+        return uri != null && (allowedCallbackOrigins.contains(origin(uri)) ||
+                               allowedCallbackOrigins.contains(uri.getHost().toLowerCase(Locale.ROOT)));
+    }
+
+    private void deliverLate(@Nullable String callbackUrl, Flux<WebhookResponse> late) {
+        late.collectList()
+            .filter(list -> !list.isEmpty())
+            .flatMap(list -> {
+                if (callbackUrl == null) {
+                    logger.warn("Dropped {} response(s) produced after the deadline without callbackUrl",
+                                list.size());
+                    return Mono.empty();
+                }
+                return callbackClient.post()
+                                     .uri(callbackUrl)
+                                     .contentType(MediaType.APPLICATION_JSON)
+                                     .bodyValue(list)
+                                     .retrieve()
+                                     .toBodilessEntity()
+                                     .then();
+            })
+            .onErrorResume(t -> {
+                logger.warn("Failed to deliver the responses produced after the deadline;callbackUrl<{}>",
+                            callbackUrl, t);
+                return Mono.empty();
+            })
+            .subscribe();
+    }
+
+    private Mono<WebhookBatchResponse> processBatchItem(WebhookRequest request) {
+        return process(request)
+                .collectList()
+                .map(WebhookBatchResponse::of)
+                .onErrorResume(t -> {
+                    logger.warn("Failed to process a request in a batch;text<{}>", request.getText(), t);
+                    return Mono.just(WebhookBatchResponse.ofError(String.valueOf(t.getMessage())));
+                });
     }
 
     /**
@@ -0,0 +1,55 @@
+package com.github.delegacy.youngbot.web;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+
+import org.springframework.messaging.handler.annotation.MessageMapping;
+
+import com.github.delegacy.youngbot.event.EventService;
+import com.github.delegacy.youngbot.event.message.MessageEvent;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Exposes {@link EventService} over RSocket. A subclass annotated with
+ * {@link org.springframework.stereotype.Controller} is picked up by Spring's RSocket support, for example
+ * {@code spring-boot-starter-rsocket}, which requires {@code spring-messaging} and RSocket in the
+ * classpath.
+ *
+ * <p>A request-stream is subject to the flow control of RSocket, so the responses are produced only as
+ * fast as the requester asks for them.
+ */
+public abstract class AbstractMessageRSocketController {
+    private final EventService eventService;
+
+    /**
+     * TBW.
+     */
+    protected AbstractMessageRSocketController(EventService eventService) {
+        this.eventService = requireNonNull(eventService, "eventService");
+    }
+
+    /**
+     * Replies to a request-response interaction with all the {@link WebhookResponse}s at once.
+     */
+    @MessageMapping("${youngbot.rsocket.route:youngbot.message}")
+    public Mono<List<WebhookResponse>> onMessage(WebhookRequest request) {
+        return process(request).collectList();
+    }
+
+    /**
+     * Replies to a request-stream interaction with each {@link WebhookResponse} as soon as it is produced
+     * and requested.
+     */
+    @MessageMapping("${youngbot.rsocket.stream-route:youngbot.message.stream}")
+    public Flux<WebhookResponse> onMessageStream(WebhookRequest request) {
+        return process(request);
+    }
+
+    private Flux<WebhookResponse> process(WebhookRequest request) {
+        return eventService.process(MessageEvent.of(request.getText()))
+                           .map(WebhookResponse::new);
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.delegacy.youngbot.web;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.delegacy.youngbot.event.EventService;
+import com.github.delegacy.youngbot.event.message.MessageEvent;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A {@link WebSocketHandler} which takes each text frame of a connection as a {@link WebhookRequest} in JSON
+ * and sends the {@link WebhookResponse}s back as text frames over the same connection, in the order of the
+ * requests.
+ *
+ * <p>Up to {@code maxInFlight} requests of a connection are processed at the same time. No more frames are
+ * read from a connection until one of them completes, which pushes back on a client sending faster than
+ * its requests are processed. A frame which is not a valid request is ignored.
+ */
+public class MessageWebSocketHandler implements WebSocketHandler {
+    private static final Logger logger = LoggerFactory.getLogger(MessageWebSocketHandler.class);
+
+    /**
+     * The number of the requests of a connection processed at the same time by default.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 8;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final EventService eventService;
+
+    private final int maxInFlight;
+
+    /**
+     * TBW.
+     */
+    public MessageWebSocketHandler(EventService eventService) {
+        this(eventService, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * TBW.
+     */
+    public MessageWebSocketHandler(EventService eventService, int maxInFlight) {
+        this.eventService = requireNonNull(eventService, "eventService");
+        checkArgument(maxInFlight > 0, "maxInFlight: %s (expected: > 0)", maxInFlight);
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        final Flux<WebSocketMessage> responses =
+                session.receive()
+                       .map(WebSocketMessage::getPayloadAsText)
+                       .flatMapSequential(payload -> process(session, payload), maxInFlight, 1)
+                       .map(session::textMessage);
+        return session.send(responses);
+    }
+
+    private Flux<String> process(WebSocketSession session, String payload) {
+        return Mono.fromCallable(() -> objectMapper.readValue(payload, WebhookRequest.class))
+                   .flatMapMany(req -> eventService.process(MessageEvent.of(req.getText())))
+                   .map(WebhookResponse::new)
+                   .concatMap(res -> Mono.fromCallable(() -> objectMapper.writeValueAsString(res)))
+                   .onErrorResume(t -> {
+                       logger.warn("Failed to process a frame of session<{}>;payload<{}>",
+                                   session.getId(), payload, t);
+                       return Mono.empty();
+                   });
+    }
+}
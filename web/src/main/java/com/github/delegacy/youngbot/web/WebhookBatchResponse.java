@@ -0,0 +1,56 @@
+package com.github.delegacy.youngbot.web;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * The result of a {@link WebhookRequest} in a batch, which has either the responses or the error.
+ */
+@JsonInclude(Include.NON_NULL)
+public class WebhookBatchResponse {
+    /**
+     * TBW.
+     */
+    public static WebhookBatchResponse of(List<WebhookResponse> responses) {
+        return new WebhookBatchResponse(List.copyOf(requireNonNull(responses, "responses")), null);
+    }
+
+    /**
+     * TBW.
+     */
+    public static WebhookBatchResponse ofError(String error) {
+        return new WebhookBatchResponse(List.of(), requireNonNull(error, "error"));
+    }
+
+    private final List<WebhookResponse> responses;
+
+    @Nullable
+    private final String error;
+
+    private WebhookBatchResponse(List<WebhookResponse> responses, @Nullable String error) {
+        this.responses = responses;
+        this.error = error;
+    }
+
+    /**
+     * TBW.
+     */
+    public List<WebhookResponse> getResponses() {
+        return responses;
+    }
+
+    /**
+     * Returns the message of the error which occurred while processing the request, or {@code null} if
+     * it was processed successfully.
+     */
+    @Nullable
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.delegacy.youngbot.web;
+
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Lets the webhook endpoints read and write {@code application/cbor} as well as JSON, in addition to
+ * {@code application/x-jackson-smile} which WebFlux supports as long as Jackson's Smile data format is in
+ * the classpath. The encoding is chosen with the {@code Content-Type} and {@code Accept} headers.
+ *
+ * <p>Note that WebFlux does not stream CBOR, so a batch of requests or a stream of responses has to be sent
+ * in another encoding such as Smile.
+ */
+public class WebhookCodecConfigurer implements WebFluxConfigurer {
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().register(new Jackson2CborDecoder());
+        configurer.customCodecs().register(new Jackson2CborEncoder());
+    }
+}
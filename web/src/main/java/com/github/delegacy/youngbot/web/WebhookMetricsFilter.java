@@ -0,0 +1,72 @@
+package com.github.delegacy.youngbot.web;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records the rate and the latency of the requests to the webhook endpoints, such as the ones of
+ * {@link AbstractMessageController}, as {@code youngbot.webhook.requests} tagged with the name of the webhook
+ * and the status of the response. The requests to the other paths are passed through as they are.
+ */
+public class WebhookMetricsFilter implements WebFilter {
+    private static String status(@Nullable HttpStatus status) {
+        return String.valueOf((status != null ? status : HttpStatus.OK).value());
+    }
+
+    private static String status(Throwable cause) {
+        if (cause instanceof ResponseStatusException) {
+            return status(((ResponseStatusException) cause).getStatus());
+        }
+        return status(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private final Map<String, String> webhooks;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Creates a new instance which records the requests to the paths in the specified {@link Map}, tagging
+     * each of them with the name the path is mapped to.
+     */
+    public WebhookMetricsFilter(Map<String, String> webhooks, MeterRegistry meterRegistry) {
+        this.webhooks = Map.copyOf(requireNonNull(webhooks, "webhooks"));
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        final String webhook = webhooks.get(exchange.getRequest().getPath().pathWithinApplication().value());
+        if (webhook == null) {
+            return chain.filter(exchange);
+        }
+
+        return Mono.defer(() -> {
+            final Timer.Sample sample = Timer.start(meterRegistry);
+            return chain.filter(exchange)
+                        .doOnSuccess(unused -> record(sample, webhook,
+                                                      status(exchange.getResponse().getStatusCode())))
+                        .doOnError(t -> record(sample, webhook, status(t)))
+                        .doOnCancel(() -> record(sample, webhook, "CANCELLED"));
+        });
+    }
+
+    private void record(Timer.Sample sample, String webhook, String status) {
+        sample.stop(Timer.builder("youngbot.webhook.requests")
+                         .tag("webhook", webhook)
+                         .tag("status", status)
+                         .register(meterRegistry));
+    }
+}
@@ -1,22 +1,48 @@
 package com.github.delegacy.youngbot.web;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
+import javax.annotation.Nullable;
+
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * TBW.
  */
+@JsonInclude(Include.NON_NULL)
 public class WebhookRequest {
     private final String text;
 
+    @Nullable
+    private final String callbackUrl;
+
+    @Nullable
+    private final Long deadlineMillis;
+
     /**
      * TBW.
      */
+    public WebhookRequest(String text) {
+        this(text, null, null);
+    }
+
+    /**
+     * Creates a new instance whose responses are replied to only if they are produced within
+     * {@code deadlineMillis}, and are sent to {@code callbackUrl} otherwise.
+     */
     @JsonCreator
-    public WebhookRequest(@JsonProperty("text") String text) {
+    public WebhookRequest(@JsonProperty("text") String text,
+                          @JsonProperty("callbackUrl") @Nullable String callbackUrl,
+                          @JsonProperty("deadlineMillis") @Nullable Long deadlineMillis) {
         this.text = requireNonNull(text, "text");
+        checkArgument(deadlineMillis == null || deadlineMillis >= 0,
+                      "deadlineMillis: %s (expected: >= 0)", deadlineMillis);
+        this.callbackUrl = callbackUrl;
+        this.deadlineMillis = deadlineMillis;
     }
 
     /**
@@ -25,4 +51,22 @@ public class WebhookRequest {
     public String getText() {
         return text;
     }
+
+    /**
+     * Returns the URL the responses produced after the deadline are posted to, or {@code null} if they are
+     * dropped.
+     */
+    @Nullable
+    public String getCallbackUrl() {
+        return callbackUrl;
+    }
+
+    /**
+     * Returns how long in milliseconds the reply waits for the responses, or {@code null} if it waits for
+     * all of them.
+     */
+    @Nullable
+    public Long getDeadlineMillis() {
+        return deadlineMillis;
+    }
 }
@@ -1,8 +1,14 @@
 package com.github.delegacy.youngbot.web;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
 import javax.annotation.Resource;
 
 import org.junit.jupiter.api.Test;
@@ -16,15 +22,25 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.BodyInserters;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.github.delegacy.youngbot.event.EventResponse;
 import com.github.delegacy.youngbot.event.EventService;
+import com.github.delegacy.youngbot.event.message.MessageEvent;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(classes = TestConfiguration.class)
 @WebFluxTest(MessageController.class)
 class AbstractMessageControllerTest {
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
     @MockBean
     private EventService eventService;
 
@@ -89,4 +105,189 @@ class AbstractMessageControllerTest {
                  .exchange()
                  .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    @Test
+    void testOnWebhookStream_ndjson() {
+        // The first response is streamed even though the processing never finishes.
+        when(eventService.process(any())).thenReturn(Flux.just(EventResponse.of("PONG"))
+                                                         .concatWith(Flux.never()));
+
+        final Flux<String> body =
+                webClient.post().uri("/api/message/v1/webhook")
+                         .contentType(MediaType.APPLICATION_JSON)
+                         .accept(MediaType.APPLICATION_NDJSON)
+                         .body(BodyInserters.fromValue("{\"text\":\"ping\"}"))
+                         .exchange()
+                         .expectStatus().isOk()
+                         .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                         .returnResult(String.class)
+                         .getResponseBody();
+
+        StepVerifier.create(body)
+                    .expectNext("{\"text\":\"PONG\"}")
+                    .thenCancel()
+                    .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testOnWebhookStream_serverSentEvents() {
+        when(eventService.process(any())).thenReturn(Flux.just(EventResponse.of("PING"),
+                                                               EventResponse.of("PONG")));
+
+        final Flux<String> body =
+                webClient.post().uri("/api/message/v1/webhook")
+                         .contentType(MediaType.APPLICATION_JSON)
+                         .accept(MediaType.TEXT_EVENT_STREAM)
+                         .body(BodyInserters.fromValue("{\"text\":\"ping\"}"))
+                         .exchange()
+                         .expectStatus().isOk()
+                         .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                         .returnResult(String.class)
+                         .getResponseBody();
+
+        StepVerifier.create(body)
+                    .expectNext("{\"text\":\"PING\"}", "{\"text\":\"PONG\"}")
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testOnWebhookBatch() {
+        when(eventService.process(any())).thenAnswer(invocation -> {
+            final MessageEvent event = invocation.getArgument(0);
+            switch (event.text()) {
+                case "slow":
+                    return Mono.delay(Duration.ofMillis(100)).map(n -> EventResponse.of("SLOW")).flux();
+                case "oops":
+                    throw new IllegalStateException("oops");
+                default:
+                    return Flux.just(EventResponse.of("PONG"), EventResponse.of("PONG"));
+            }
+        });
+
+        // The results are in the order of the requests even though the first one finishes last.
+        webClient.post().uri("/api/message/v1/webhook/batch")
+                 .contentType(MediaType.APPLICATION_JSON)
+                 .body(BodyInserters.fromValue("[{\"text\":\"slow\"},{\"text\":\"oops\"},{\"text\":\"ping\"}]"))
+                 .exchange()
+                 .expectStatus().isOk()
+                 .expectBody()
+                 .jsonPath("$.length()").isEqualTo(3)
+                 .jsonPath("$[0].responses[0].text").isEqualTo("SLOW")
+                 .jsonPath("$[0].error").doesNotExist()
+                 .jsonPath("$[1].responses").isEmpty()
+                 .jsonPath("$[1].error").isEqualTo("oops")
+                 .jsonPath("$[2].responses.length()").isEqualTo(2);
+    }
+
+    @Test
+    void testOnWebhookBatch_ndjson() {
+        when(eventService.process(any())).thenReturn(Flux.just(EventResponse.of("PONG")));
+
+        webClient.post().uri("/api/message/v1/webhook/batch")
+                 .contentType(MediaType.APPLICATION_NDJSON)
+                 .body(BodyInserters.fromValue("{\"text\":\"ping\"}\n{\"text\":\"ping\"}\n"))
+                 .exchange()
+                 .expectStatus().isOk()
+                 .expectBody()
+                 .json("[{\"responses\":[{\"text\":\"PONG\"}]},{\"responses\":[{\"text\":\"PONG\"}]}]");
+    }
+
+    @Test
+    void testOnWebhook_cbor() throws Exception {
+        testOnWebhook_binary(new ObjectMapper(new CBORFactory()), MediaType.APPLICATION_CBOR);
+    }
+
+    @Test
+    void testOnWebhook_smile() throws Exception {
+        testOnWebhook_binary(new ObjectMapper(new SmileFactory()), SMILE);
+    }
+
+    private void testOnWebhook_binary(ObjectMapper mapper, MediaType mediaType) throws Exception {
+        when(eventService.process(any())).thenReturn(Flux.just(EventResponse.of("PONG")));
+        final byte[] request = mapper.writeValueAsBytes(Map.of("text", "ping"));
+
+        final byte[] body = webClient.post().uri("/api/message/v1/webhook")
+                                     .contentType(mediaType)
+                                     .accept(mediaType)
+                                     .body(BodyInserters.fromValue(request))
+                                     .exchange()
+                                     .expectStatus().isOk()
+                                     .expectHeader().contentTypeCompatibleWith(mediaType)
+                                     .expectBody(byte[].class)
+                                     .returnResult()
+                                     .getResponseBody();
+
+        assertThat(mapper.readTree(body).at("/0/text").asText()).isEqualTo("PONG");
+    }
+
+    @Test
+    void testOnWebhook_deadline() {
+        final AtomicReference<String> callback = new AtomicReference<>();
+        final DisposableServer server =
+                HttpServer.create()
+                          .host("127.0.0.1")
+                          .port(0)
+                          .route(routes -> routes.post("/callback", (req, res) -> req
+                                  .receive()
+                                  .aggregate()
+                                  .asString()
+                                  .doOnNext(callback::set)
+                                  .then(res.status(200).send())))
+                          .bindNow();
+        try {
+            when(eventService.process(any())).thenReturn(
+                    Flux.just(EventResponse.of("FAST"))
+                        .concatWith(Mono.delay(Duration.ofMillis(500)).map(n -> EventResponse.of("SLOW"))));
+
+            final String callbackUrl = "http://127.0.0.1:" + server.port() + "/callback";
+            webClient.post().uri("/api/message/v1/webhook")
+                     .contentType(MediaType.APPLICATION_JSON)
+                     .body(BodyInserters.fromValue("{\"text\":\"ping\",\"deadlineMillis\":100," +
+                                                   "\"callbackUrl\":\"" + callbackUrl + "\"}"))
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBody()
+                     .json("[{\"text\":\"FAST\"}]");
+
+            await().untilAsserted(() -> assertThat(callback.get()).isEqualTo("[{\"text\":\"SLOW\"}]"));
+        } finally {
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    void testOnWebhook_invalidCallbackUrl() {
+        webClient.post().uri("/api/message/v1/webhook")
+                 .contentType(MediaType.APPLICATION_JSON)
+                 .body(BodyInserters.fromValue("{\"text\":\"ping\",\"deadlineMillis\":100," +
+                                               "\"callbackUrl\":\"file:///etc/passwd\"}"))
+                 .exchange()
+                 .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testOnWebhook_disallowedCallbackUrl() {
+        webClient.post().uri("/api/message/v1/webhook")
+                 .contentType(MediaType.APPLICATION_JSON)
+                 .body(BodyInserters.fromValue("{\"text\":\"ping\",\"deadlineMillis\":100," +
+                                               "\"callbackUrl\":\"http://169.254.169.254/latest\"}"))
+                 .exchange()
+                 .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testOnWebhook_deadlineIsCapped() {
+        when(eventService.process(any())).thenReturn(
+                Flux.just(EventResponse.of("FAST")).concatWith(Flux.never()));
+
+        // The reply is not held for a day but for the maximum deadline of the controller at most.
+        webClient.post().uri("/api/message/v1/webhook")
+                 .contentType(MediaType.APPLICATION_JSON)
+                 .body(BodyInserters.fromValue("{\"text\":\"ping\",\"deadlineMillis\":86400000}"))
+                 .exchange()
+                 .expectStatus().isOk()
+                 .expectBody()
+                 .json("[{\"text\":\"FAST\"}]");
+    }
 }
@@ -0,0 +1,104 @@
+package com.github.delegacy.youngbot.web;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+
+import com.github.delegacy.youngbot.event.EventResponse;
+import com.github.delegacy.youngbot.event.EventService;
+
+import io.rsocket.core.RSocketServer;
+import io.rsocket.transport.local.LocalClientTransport;
+import io.rsocket.transport.local.LocalServerTransport;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class AbstractMessageRSocketControllerTest {
+    private static final class MessageRSocketController extends AbstractMessageRSocketController {
+        MessageRSocketController(EventService eventService) {
+            super(eventService);
+        }
+    }
+
+    @Mock
+    private EventService eventService;
+
+    private Disposable server;
+
+    private RSocketRequester requester;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        final RSocketStrategies strategies = RSocketStrategies.builder()
+                                                              .encoder(new Jackson2JsonEncoder())
+                                                              .decoder(new Jackson2JsonDecoder())
+                                                              .build();
+        final RSocketMessageHandler handler = new RSocketMessageHandler();
+        handler.setRSocketStrategies(strategies);
+        handler.setEmbeddedValueResolver(new StandardEnvironment()::resolvePlaceholders);
+        handler.setHandlers(List.of(new MessageRSocketController(eventService)));
+        handler.afterPropertiesSet();
+
+        server = RSocketServer.create(handler.responder())
+                              .bind(LocalServerTransport.create("youngbot"))
+                              .block();
+        requester = RSocketRequester.builder()
+                                    .rsocketStrategies(strategies)
+                                    .dataMimeType(MediaType.APPLICATION_JSON)
+                                    .transport(LocalClientTransport.create("youngbot"));
+    }
+
+    @AfterEach
+    void afterEach() {
+        requester.dispose();
+        server.dispose();
+    }
+
+    @Test
+    void testOnMessage() {
+        when(eventService.process(any())).thenReturn(Flux.just(EventResponse.of("PING"),
+                                                               EventResponse.of("PONG")));
+
+        StepVerifier.create(requester.route("youngbot.message")
+                                     .data(new WebhookRequest("ping"))
+                                     .retrieveMono(String.class))
+                    .expectNext("[{\"text\":\"PING\"},{\"text\":\"PONG\"}]")
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testOnMessageStream() {
+        when(eventService.process(any())).thenReturn(Flux.range(0, 100)
+                                                         .map(i -> EventResponse.of(String.valueOf(i))));
+
+        // Only as many responses as requested are sent.
+        StepVerifier.create(requester.route("youngbot.message.stream")
+                                     .data(new WebhookRequest("ping"))
+                                     .retrieveFlux(String.class), 2)
+                    .expectNext("{\"text\":\"0\"}", "{\"text\":\"1\"}")
+                    .expectNoEvent(Duration.ofMillis(100))
+                    .thenRequest(1)
+                    .expectNext("{\"text\":\"2\"}")
+                    .thenCancel()
+                    .verify(Duration.ofSeconds(5));
+    }
+}
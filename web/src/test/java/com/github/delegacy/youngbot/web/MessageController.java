@@ -1,12 +1,17 @@
 package com.github.delegacy.youngbot.web;
 
+import java.time.Duration;
+import java.util.Set;
+
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
 
 import com.github.delegacy.youngbot.event.EventService;
 
 @RestController
 public class MessageController extends AbstractMessageController {
     public MessageController(EventService eventService) {
-        super(eventService);
+        super(eventService, DEFAULT_BATCH_CONCURRENCY, WebClient.create(), Set.of("127.0.0.1"),
+              Duration.ofSeconds(1));
     }
 }
@@ -0,0 +1,101 @@
+package com.github.delegacy.youngbot.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketMessage.Type;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import com.github.delegacy.youngbot.event.EventResponse;
+import com.github.delegacy.youngbot.event.EventService;
+import com.github.delegacy.youngbot.event.message.MessageEvent;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class MessageWebSocketHandlerTest {
+    private static WebSocketMessage toMessage(String text) {
+        return new WebSocketMessage(Type.TEXT, DefaultDataBufferFactory.sharedInstance.wrap(
+                text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Mock
+    private EventService eventService;
+
+    @Mock
+    private WebSocketSession session;
+
+    private Flux<String> sent;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void beforeEach() {
+        lenient().when(session.getId()).thenReturn("sessionId");
+        when(session.textMessage(anyString())).thenAnswer(invocation -> toMessage(invocation.getArgument(0)));
+        when(session.send(any())).thenAnswer(invocation -> {
+            sent = Flux.from((Publisher<WebSocketMessage>) invocation.getArgument(0))
+                       .map(WebSocketMessage::getPayloadAsText)
+                       .cache();
+            return sent.then();
+        });
+    }
+
+    @Test
+    void testHandle() {
+        when(eventService.process(any())).thenAnswer(invocation -> {
+            final MessageEvent event = invocation.getArgument(0);
+            if ("slow".equals(event.text())) {
+                return Mono.delay(Duration.ofMillis(100)).map(n -> EventResponse.of("SLOW")).flux();
+            }
+            return Flux.just(EventResponse.of("PONG"));
+        });
+        when(session.receive()).thenReturn(Flux.just(toMessage("{\"text\":\"slow\"}"),
+                                                     toMessage("not a request"),
+                                                     toMessage("{\"text\":\"ping\"}")));
+
+        StepVerifier.create(new MessageWebSocketHandler(eventService).handle(session))
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+
+        // The responses are in the order of the requests, and the invalid frame is ignored.
+        assertThat(sent.collectList().block()).containsExactly("{\"text\":\"SLOW\"}", "{\"text\":\"PONG\"}");
+    }
+
+    @Test
+    void testHandle_boundedInFlight() {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        when(eventService.process(any())).thenAnswer(invocation -> Mono.delay(Duration.ofMillis(10))
+                .doOnSubscribe(s -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .doFinally(signal -> inFlight.decrementAndGet())
+                .map(n -> EventResponse.of("PONG"))
+                .flux());
+        when(session.receive()).thenReturn(Flux.range(0, 20).map(i -> toMessage("{\"text\":\"ping\"}")));
+
+        StepVerifier.create(new MessageWebSocketHandler(eventService, 3).handle(session))
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+
+        final List<String> responses = sent.collectList().block();
+        assertThat(responses).hasSize(20);
+        assertThat(maxInFlight).hasValueLessThanOrEqualTo(3);
+    }
+}
@@ -12,4 +12,9 @@ public class TestConfiguration extends AbstractTestConfiguration {
     public MessageController messageController(EventService eventService) {
         return new MessageController(eventService);
     }
+
+    @Bean
+    public WebhookCodecConfigurer webhookCodecConfigurer() {
+        return new WebhookCodecConfigurer();
+    }
 }
@@ -0,0 +1,45 @@
+package com.github.delegacy.youngbot.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.delegacy.youngbot.event.EventResponse;
+
+/**
+ * Compares the encodings the webhook endpoints negotiate by the size of a typical batch of responses.
+ */
+class WebhookEncodingTest {
+    private static final List<WebhookResponse> RESPONSES =
+            IntStream.range(0, 100)
+                     .mapToObj(i -> new WebhookResponse(EventResponse.of("PONG " + i)))
+                     .collect(Collectors.toUnmodifiableList());
+
+    private static byte[] encode(ObjectMapper mapper) throws Exception {
+        final byte[] encoded = mapper.writeValueAsBytes(RESPONSES);
+        final List<JsonNode> decoded = mapper.readValue(encoded, new TypeReference<>() {});
+        assertThat(decoded).hasSize(RESPONSES.size());
+        assertThat(decoded.get(99).get("text").asText()).isEqualTo("PONG 99");
+        return encoded;
+    }
+
+    @Test
+    void testBinaryEncodingsAreSmaller() throws Exception {
+        final int json = encode(new ObjectMapper()).length;
+        final int cbor = encode(new ObjectMapper(new CBORFactory())).length;
+        final int smile = encode(new ObjectMapper(new SmileFactory())).length;
+
+        assertThat(cbor).isLessThan(json);
+        // Smile refers back to the property names already written instead of repeating them.
+        assertThat(smile).isLessThan(cbor);
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.delegacy.youngbot.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class WebhookMetricsFilterTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final WebhookMetricsFilter filter =
+            new WebhookMetricsFilter(Map.of("/api/message/v1/webhook", "message"), meterRegistry);
+
+    @Test
+    void testFilter() throws Exception {
+        final var exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/message/v1/webhook"));
+
+        StepVerifier.create(filter.filter(exchange, ex -> {
+                        ex.getResponse().setStatusCode(HttpStatus.OK);
+                        return Mono.empty();
+                    }))
+                    .expectComplete()
+                    .verify();
+
+        assertThat(meterRegistry.get("youngbot.webhook.requests")
+                                .tag("webhook", "message")
+                                .tag("status", "200")
+                                .timer()
+                                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void testFilter_error() throws Exception {
+        final var exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/message/v1/webhook"));
+
+        StepVerifier.create(filter.filter(exchange, ex -> Mono.error(new ServerWebInputException("oops"))))
+                    .expectError(ServerWebInputException.class)
+                    .verify();
+
+        assertThat(meterRegistry.get("youngbot.webhook.requests")
+                                .tag("webhook", "message")
+                                .tag("status", "400")
+                                .timer()
+                                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void testFilter_otherPath() throws Exception {
+        final var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health"));
+
+        StepVerifier.create(filter.filter(exchange, ex -> Mono.empty()))
+                    .expectComplete()
+                    .verify();
+
+        assertThat(meterRegistry.find("youngbot.webhook.requests").timers()).isEmpty();
+    }
+}